@@ -0,0 +1,109 @@
+package alg.geometricPart;
+
+import bp.roadnetworkpartitioning.*;
+
+import java.util.*;
+
+/**
+ * Class with geometric partitioning algorithms, they use only coordinates of vertices.
+ * Recursive coordinate bisection divides graph by {@link RecursiveBisection}, each bisection
+ * is weighted median of vertices along the longer side of bounding box of the subgraph.
+ * Hilbert curve partitioning orders vertices along Hilbert curve and cuts the order
+ * into parts of equal weight.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class GeometricAlgorithm extends APartitionAlgorithm implements GraphBisector {
+    /** Name of recursive coordinate bisection method. */
+    private static final String RCB = "rcb";
+    /** Name of Hilbert curve method. */
+    private static final String HILBERT = "hilbert";
+    /** True if Hilbert curve is used instead of recursive coordinate bisection. */
+    private boolean hilbert = false;
+
+    @Override
+    protected GraphPartition createGraphPartition() {
+        GraphPartition graphPartition = null;
+        if (getGraph() != null) {
+            readParameters();
+            if (hilbert) {
+                CompactGraph compactGraph = getCompactGraph();
+                graphPartition = new GraphPartition(compactGraph, partitionByCurve(compactGraph), Math.max(1, getPartsCount()));
+            } else {
+                graphPartition = partitionByBisection(this, 0);
+            }
+        }
+        return graphPartition;
+    }
+
+    @Override
+    public int[] bisect(CompactGraph graph, double fraction, long seed) {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int v = 0; v < graph.getVertexCount(); v++) {
+            minX = Math.min(minX, graph.getX(v));
+            minY = Math.min(minY, graph.getY(v));
+            maxX = Math.max(maxX, graph.getX(v));
+            maxY = Math.max(maxY, graph.getY(v));
+        }
+        return new WeightedSelection(graph, maxX - minX >= maxY - minY).select(fraction, seed);
+    }
+
+    @Override
+    public Map<String, String> getAllCustomParameters() {
+        Map<String, String> customParameters = new TreeMap<>();
+        customParameters.put("Method", RCB);
+        return customParameters;
+    }
+
+    @Override
+    public Map<String, String> getAllCustomParametersDescriptions() {
+        Map<String, String> customParametersDescriptions = new TreeMap<>();
+        customParametersDescriptions.put("Method", "Partitioning method: \"" + RCB + "\" for recursive coordinate "
+                + "bisection, \"" + HILBERT + "\" cuts order of vertices along Hilbert curve.");
+        return customParametersDescriptions;
+    }
+
+    @Override
+    public String getName() {
+        return "Geometric";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Recursive Coordinate Bisection and Hilbert Curve Partitioning";
+    }
+
+    /**
+     * Reads method parameter.
+     */
+    private void readParameters() {
+        if (getParameters() != null && getParameters().containsKey("Method")) {
+            hilbert = HILBERT.equals(getParameters().get("Method").trim().toLowerCase());
+        }
+    }
+
+    /**
+     * Sorts vertices along Hilbert curve and cuts the order into parts of equal weight.
+     * Vertex belongs to the part containing middle of its weight in the order.
+     * @param compactGraph      compact form of partitioned graph.
+     * @return part number of each vertex.
+     */
+    private int[] partitionByCurve(CompactGraph compactGraph) {
+        int partsCount = Math.max(1, getPartsCount());
+        int[] order = IndexSort.sort(HilbertCurve.computeKeys(compactGraph));
+        int[] partOf = new int[order.length];
+        double totalWeight = compactGraph.getTotalWeight();
+        double weight = 0;
+        for (int i = 0; i < order.length; i++) {
+            double vertexWeight = compactGraph.getVertexWeight(order[i]);
+            int part = totalWeight > 0 ? (int) ((weight + vertexWeight / 2) * partsCount / totalWeight)
+                    : (int) ((long) i * partsCount / order.length);
+            partOf[order[i]] = Math.max(0, Math.min(partsCount - 1, part));
+            weight += vertexWeight;
+        }
+        return partOf;
+    }
+}
@@ -0,0 +1,75 @@
+package alg.geometricPart;
+
+import bp.roadnetworkpartitioning.CompactGraph;
+
+/**
+ * Class computing positions of vertices on Hilbert curve.
+ * Bounding square of the graph is divided into 2^16 x 2^16 cells, each vertex gets index
+ * of its cell along the curve. Vertices close on the curve are close in the plane,
+ * so consecutive vertices in curve order form compact regions.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public final class HilbertCurve {
+    /** Number of bits of cell coordinate. */
+    private static final int ORDER = 16;
+    /** Number of cells along side of bounding square. */
+    private static final int SIDE = 1 << ORDER;
+
+    /** Constructor is private, class has only static methods. */
+    private HilbertCurve() {
+    }
+
+    /**
+     * Computes position on Hilbert curve of each vertex.
+     * @param graph     graph with vertex coordinates.
+     * @return index of cell of each vertex along the curve.
+     */
+    public static double[] computeKeys(CompactGraph graph) {
+        int n = graph.getVertexCount();
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int v = 0; v < n; v++) {
+            minX = Math.min(minX, graph.getX(v));
+            minY = Math.min(minY, graph.getY(v));
+            maxX = Math.max(maxX, graph.getX(v));
+            maxY = Math.max(maxY, graph.getY(v));
+        }
+        double size = Math.max(maxX - minX, maxY - minY);
+        double scale = size > 0 ? (SIDE - 1) / size : 0;
+        double[] keys = new double[n];
+        for (int v = 0; v < n; v++) {
+            int x = (int) ((graph.getX(v) - minX) * scale);
+            int y = (int) ((graph.getY(v) - minY) * scale);
+            keys[v] = getIndex(x, y);
+        }
+        return keys;
+    }
+
+    /**
+     * Gets index of cell along Hilbert curve.
+     * @param x     column of cell, 0 .. 2^16 - 1.
+     * @param y     row of cell, 0 .. 2^16 - 1.
+     * @return index of cell along the curve.
+     */
+    static long getIndex(int x, int y) {
+        long index = 0;
+        for (int s = SIDE / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ ry);
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = SIDE - 1 - x;
+                    y = SIDE - 1 - y;
+                }
+                int swap = x;
+                x = y;
+                y = swap;
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,250 @@
+package alg.geometricPart;
+
+import bp.roadnetworkpartitioning.CompactGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Implementation of weighted median selection by quickselect with random pivots.
+ * Vertices are partitioned around pivot coordinate into lower, equal and higher ones,
+ * only the group containing target weight is processed further, so the selection takes
+ * expected O(n) time instead of sorting. Large ranges are partitioned in parallel: chunks
+ * of the range count their groups, offsets of chunks are summed in chunk order and chunks
+ * scatter their vertices into a buffer, so the result does not depend on scheduling.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class WeightedSelection {
+    /** Ranges shorter than this are partitioned sequentially. */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 15;
+    /** Number of vertices partitioned by one task. */
+    private static final int CHUNK_SIZE = 1 << 13;
+
+    /** Groups of range partitioned around pivot. */
+    private static final class Groups {
+        /** Position after the last vertex with lower coordinate. */
+        private final int lowerEnd;
+        /** Position of the first vertex with higher coordinate. */
+        private final int higherStart;
+        /** Weight of vertices with lower coordinate. */
+        private final double lowerWeight;
+        /** Weight of vertices with coordinate equal to pivot. */
+        private final double equalWeight;
+
+        /**
+         * Constructor of groups.
+         * @param lowerEnd      position after the last vertex with lower coordinate.
+         * @param higherStart   position of the first vertex with higher coordinate.
+         * @param lowerWeight   weight of vertices with lower coordinate.
+         * @param equalWeight   weight of vertices with coordinate equal to pivot.
+         */
+        private Groups(int lowerEnd, int higherStart, double lowerWeight, double equalWeight) {
+            this.lowerEnd = lowerEnd;
+            this.higherStart = higherStart;
+            this.lowerWeight = lowerWeight;
+            this.equalWeight = equalWeight;
+        }
+    }
+
+    /** Coordinate of each vertex. */
+    private final double[] keys;
+    /** Weight of each vertex. */
+    private final double[] weights;
+
+    /**
+     * Constructor of selection.
+     * @param graph     graph whose vertices are divided.
+     * @param xAxis     true if vertices are divided by x-coordinate, false for y-coordinate.
+     */
+    public WeightedSelection(CompactGraph graph, boolean xAxis) {
+        int n = graph.getVertexCount();
+        this.keys = new double[n];
+        this.weights = new double[n];
+        double total = 0;
+        for (int v = 0; v < n; v++) {
+            keys[v] = xAxis ? graph.getX(v) : graph.getY(v);
+            weights[v] = graph.getVertexWeight(v);
+            total += weights[v];
+        }
+        if (!(total > 0)) {
+            Arrays.fill(weights, 1);
+        }
+    }
+
+    /**
+     * Divides vertices so that vertices of part 0 have no higher coordinate than vertices of part 1
+     * and weight of part 0 is as close as possible to given fraction of the graph weight.
+     * @param fraction  target fraction of graph weight in part 0.
+     * @param seed      seed of random pivots.
+     * @return part (0 or 1) of each vertex.
+     */
+    public int[] select(double fraction, long seed) {
+        int n = keys.length;
+        int[] vertices = new int[n];
+        double total = 0;
+        for (int v = 0; v < n; v++) {
+            vertices[v] = v;
+            total += weights[v];
+        }
+        int[] buffer = n >= SEQUENTIAL_THRESHOLD ? new int[n] : null;
+        SplittableRandom random = new SplittableRandom(seed);
+        double target = fraction * total;
+        int from = 0;
+        int to = n;
+        int split = 0;
+        while (from < to) {
+            double pivot = keys[vertices[from + random.nextInt(to - from)]];
+            Groups groups = to - from >= SEQUENTIAL_THRESHOLD ? partitionInParallel(vertices, buffer, from, to, pivot)
+                    : partition(vertices, from, to, pivot);
+            if (target <= groups.lowerWeight) {
+                to = groups.lowerEnd;
+            } else if (target >= groups.lowerWeight + groups.equalWeight) {
+                target -= groups.lowerWeight + groups.equalWeight;
+                from = groups.higherStart;
+                split = groups.higherStart;
+            } else {
+                target -= groups.lowerWeight;
+                split = groups.lowerEnd;
+                for (int j = groups.lowerEnd; j < groups.higherStart && weights[vertices[j]] / 2 < target; j++) {
+                    target -= weights[vertices[j]];
+                    split++;
+                }
+                break;
+            }
+        }
+        int[] sides = new int[n];
+        for (int j = split; j < n; j++) {
+            sides[vertices[j]] = 1;
+        }
+        return sides;
+    }
+
+    /**
+     * Partitions range of vertices in place into lower, equal and higher ones.
+     * @param vertices  partitioned vertices.
+     * @param from      first position of range.
+     * @param to        position after last position of range.
+     * @param pivot     pivot coordinate.
+     * @return groups of range.
+     */
+    private Groups partition(int[] vertices, int from, int to, double pivot) {
+        int lowerEnd = from;
+        int higherStart = to;
+        int i = from;
+        double lowerWeight = 0;
+        double equalWeight = 0;
+        while (i < higherStart) {
+            int v = vertices[i];
+            if (keys[v] < pivot) {
+                vertices[i++] = vertices[lowerEnd];
+                vertices[lowerEnd++] = v;
+                lowerWeight += weights[v];
+            } else if (keys[v] > pivot) {
+                vertices[i] = vertices[--higherStart];
+                vertices[higherStart] = v;
+            } else {
+                i++;
+                equalWeight += weights[v];
+            }
+        }
+        return new Groups(lowerEnd, higherStart, lowerWeight, equalWeight);
+    }
+
+    /**
+     * Partitions range of vertices into lower, equal and higher ones by parallel tasks.
+     * Vertices of each group keep their relative order.
+     * @param vertices  partitioned vertices.
+     * @param buffer    buffer for scattering vertices.
+     * @param from      first position of range.
+     * @param to        position after last position of range.
+     * @param pivot     pivot coordinate.
+     * @return groups of range.
+     */
+    private Groups partitionInParallel(int[] vertices, int[] buffer, int from, int to, double pivot) {
+        int chunks = (to - from + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int[][] counts = new int[chunks][3];
+        double[][] chunkWeights = new double[chunks][2];
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int c = 0; c < chunks; c++) {
+            int chunk = c;
+            int start = from + chunk * CHUNK_SIZE;
+            int end = Math.min(to, start + CHUNK_SIZE);
+            tasks.add(ForkJoinTask.adapt(() -> countGroups(vertices, start, end, pivot, counts[chunk], chunkWeights[chunk])));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        int lowerCount = 0;
+        int equalCount = 0;
+        double lowerWeight = 0;
+        double equalWeight = 0;
+        for (int c = 0; c < chunks; c++) {
+            lowerCount += counts[c][0];
+            equalCount += counts[c][1];
+            lowerWeight += chunkWeights[c][0];
+            equalWeight += chunkWeights[c][1];
+        }
+        int[] positions = {from, from + lowerCount, from + lowerCount + equalCount};
+        tasks.clear();
+        for (int c = 0; c < chunks; c++) {
+            int start = from + c * CHUNK_SIZE;
+            int end = Math.min(to, start + CHUNK_SIZE);
+            int[] chunkPositions = positions.clone();
+            for (int group = 0; group < 3; group++) {
+                positions[group] += counts[c][group];
+            }
+            tasks.add(ForkJoinTask.adapt(() -> scatterGroups(vertices, buffer, start, end, pivot, chunkPositions)));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        System.arraycopy(buffer, from, vertices, from, to - from);
+        return new Groups(from + lowerCount, from + lowerCount + equalCount, lowerWeight, equalWeight);
+    }
+
+    /**
+     * Counts vertices of chunk in each group and sums weight of lower and equal groups.
+     * @param vertices      partitioned vertices.
+     * @param start         first position of chunk.
+     * @param end           position after last position of chunk.
+     * @param pivot         pivot coordinate.
+     * @param counts        number of lower, equal and higher vertices, it is filled.
+     * @param groupWeights  weight of lower and equal vertices, it is filled.
+     */
+    private void countGroups(int[] vertices, int start, int end, double pivot, int[] counts, double[] groupWeights) {
+        for (int i = start; i < end; i++) {
+            int v = vertices[i];
+            int group = getGroup(v, pivot);
+            counts[group]++;
+            if (group < 2) {
+                groupWeights[group] += weights[v];
+            }
+        }
+    }
+
+    /**
+     * Copies vertices of chunk to positions of their groups in buffer.
+     * @param vertices      partitioned vertices.
+     * @param buffer        buffer for scattering vertices.
+     * @param start         first position of chunk.
+     * @param end           position after last position of chunk.
+     * @param pivot         pivot coordinate.
+     * @param positions     next position in buffer of lower, equal and higher vertices, it is updated.
+     */
+    private void scatterGroups(int[] vertices, int[] buffer, int start, int end, double pivot, int[] positions) {
+        for (int i = start; i < end; i++) {
+            int v = vertices[i];
+            buffer[positions[getGroup(v, pivot)]++] = v;
+        }
+    }
+
+    /**
+     * Gets group of vertex.
+     * @param v         dense vertex index.
+     * @param pivot     pivot coordinate.
+     * @return 0 for lower coordinate, 1 for coordinate equal to pivot, 2 for higher coordinate.
+     */
+    private int getGroup(int v, double pivot) {
+        return keys[v] < pivot ? 0 : keys[v] > pivot ? 2 : 1;
+    }
+}
@@ -0,0 +1,4 @@
+module Geometric {
+    requires bp.roadnetworkpartitioning;
+    exports alg.geometricPart;
+}
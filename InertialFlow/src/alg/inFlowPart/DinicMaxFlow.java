@@ -0,0 +1,124 @@
+package alg.inFlowPart;
+
+import java.util.Arrays;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Implementation of Dinic's maximum flow on residual network.
+ * Level graph is built by BFS, blocking flow is found by iterative DFS
+ * with current-arc pointers, so each arc is skipped at most once per phase.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class DinicMaxFlow implements MaxFlowSolver {
+    /** Residual network. */
+    private final FlowNetwork network;
+    /** BFS level of each node, -1 for unreachable nodes. */
+    private final int[] level;
+    /** Next arc to be tried from each node in current phase. */
+    private final int[] currentArc;
+    /** Queue of BFS. */
+    private final int[] queue;
+    /** Arcs of currently searched path. */
+    private final int[] path;
+    /** Value of maximum flow. */
+    private double maxFlow = 0;
+
+    /**
+     * Constructor of solver.
+     * @param network   residual network, flows are updated.
+     */
+    public DinicMaxFlow(FlowNetwork network) {
+        this.network = network;
+        this.level = new int[network.nodeCount];
+        this.currentArc = new int[network.nodeCount];
+        this.queue = new int[network.nodeCount];
+        this.path = new int[network.nodeCount];
+    }
+
+    @Override
+    public boolean compute(int s, int t, DoubleSupplier bound) {
+        if (s == t) {
+            return true;
+        }
+        while (bfs(s, t)) {
+            System.arraycopy(network.head, 0, currentArc, 0, network.nodeCount);
+            double flow;
+            while ((flow = augment(s, t)) > 0) {
+                maxFlow += flow;
+                if (maxFlow > bound.getAsDouble()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public double getFlow() {
+        return maxFlow;
+    }
+
+    /**
+     * Breath-First Search computes levels of nodes reachable from source s.
+     * @param s     source node.
+     * @param t     sink node.
+     * @return true if flow can be sent from s to t.
+     */
+    private boolean bfs(int s, int t) {
+        Arrays.fill(level, -1);
+        level[s] = 0;
+        queue[0] = s;
+        int queueEnd = 1;
+        for (int i = 0; i < queueEnd; i++) {
+            int u = queue[i];
+            for (int arc = network.head[u]; arc != -1; arc = network.next[arc]) {
+                int v = network.to[arc];
+                if (level[v] < 0 && network.residual(arc) > FlowNetwork.EPSILON) {
+                    level[v] = level[u] + 1;
+                    queue[queueEnd++] = v;
+                }
+            }
+        }
+        return level[t] >= 0;
+    }
+
+    /**
+     * Finds one path in level graph by iterative DFS and sends flow through it.
+     * Arcs that lead to dead ends are skipped by advancing current-arc pointers.
+     * @param s     source node.
+     * @param t     sink node.
+     * @return flow sent through found path, 0 if there is no path.
+     */
+    private double augment(int s, int t) {
+        int depth = 0;
+        int u = s;
+        while (u != t) {
+            int arc = currentArc[u];
+            while (arc != -1 && (level[network.to[arc]] != level[u] + 1
+                    || network.residual(arc) <= FlowNetwork.EPSILON)) {
+                arc = network.next[arc];
+            }
+            currentArc[u] = arc;
+            if (arc != -1) {
+                path[depth++] = arc;
+                u = network.to[arc];
+            } else if (depth == 0) {
+                return 0;
+            } else {
+                level[u] = -1;
+                depth--;
+                u = network.to[path[depth] ^ 1];
+                currentArc[u] = network.next[currentArc[u]];
+            }
+        }
+        double flow = Double.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            flow = Math.min(flow, network.residual(path[i]));
+        }
+        for (int i = 0; i < depth; i++) {
+            network.push(path[i], flow);
+        }
+        return flow;
+    }
+}
@@ -0,0 +1,98 @@
+package alg.inFlowPart;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of residual network for maximum flow computation.
+ * Each edge is stored as pair of arcs with indices 2i and 2i + 1, so reverse arc
+ * of arc a is a ^ 1. Even arcs keep direction of the original edge. Arcs leaving
+ * node u form linked list head[u], next[head[u]], ... ended by -1.
+ * Edges are undirected, both arcs of a pair have capacity of the edge.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class FlowNetwork {
+    /** Tolerance of comparing flow with capacity. */
+    static final double EPSILON = 0.000000001;
+    /** Number of nodes. */
+    final int nodeCount;
+    /** First arc leaving each node, -1 if there is none. */
+    final int[] head;
+    /** Next arc leaving the same node, -1 for the last one. */
+    final int[] next;
+    /** Node where arc ends. */
+    final int[] to;
+    /** Capacity of arc. */
+    final double[] cap;
+    /** Flow in arc, flow of reverse arc is always its negation. */
+    final double[] flow;
+    /** Number of added arcs. */
+    private int arcCount = 0;
+
+    /**
+     * Constructor of network without edges.
+     * @param nodeCount     number of nodes.
+     * @param edgeCount     maximal number of added edges.
+     */
+    FlowNetwork(int nodeCount, int edgeCount) {
+        this.nodeCount = nodeCount;
+        this.head = new int[nodeCount];
+        Arrays.fill(head, -1);
+        this.next = new int[2 * edgeCount];
+        this.to = new int[2 * edgeCount];
+        this.cap = new double[2 * edgeCount];
+        this.flow = new double[2 * edgeCount];
+    }
+
+    /**
+     * Adds undirected edge.
+     * @param u         first node.
+     * @param v         second node.
+     * @param capacity  capacity of edge in both directions.
+     */
+    void addEdge(int u, int v, double capacity) {
+        addArc(u, v, capacity);
+        addArc(v, u, capacity);
+    }
+
+    /**
+     * Adds one arc.
+     * @param u         node where arc starts.
+     * @param v         node where arc ends.
+     * @param capacity  capacity of arc.
+     */
+    private void addArc(int u, int v, double capacity) {
+        to[arcCount] = v;
+        cap[arcCount] = capacity;
+        next[arcCount] = head[u];
+        head[u] = arcCount;
+        arcCount++;
+    }
+
+    /**
+     * Gets number of added arcs.
+     * @return number of arcs.
+     */
+    int getArcCount() {
+        return arcCount;
+    }
+
+    /**
+     * Gets residual capacity of arc.
+     * @param arc   arc index.
+     * @return capacity that can still be sent through arc.
+     */
+    double residual(int arc) {
+        return cap[arc] - flow[arc];
+    }
+
+    /**
+     * Sends flow through arc and takes it back from reverse arc.
+     * @param arc       arc index.
+     * @param amount    amount of sent flow.
+     */
+    void push(int arc, double amount) {
+        flow[arc] += amount;
+        flow[arc ^ 1] -= amount;
+    }
+}
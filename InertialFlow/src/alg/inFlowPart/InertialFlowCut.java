@@ -0,0 +1,249 @@
+package alg.inFlowPart;
+
+import bp.roadnetworkpartitioning.CompactGraph;
+import bp.roadnetworkpartitioning.IndexSort;
+
+import java.util.BitSet;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Implementation of Inertial Flow bisection along one line direction.
+ * Vertices are projected onto the line, the first and the last vertices in projection order
+ * are contracted into source and sink node and minimum cut between them divides the graph.
+ * Each instance holds state of one direction, so directions can be computed concurrently.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class InertialFlowCut {
+    /** Node of contracted source vertices. */
+    private static final int SOURCE = 0;
+    /** Node of contracted sink vertices. */
+    private static final int SINK = 1;
+    /** Divided graph. */
+    private final CompactGraph graph;
+    /** X-coordinate of point A on the line. */
+    private final double ax;
+    /** Y-coordinate of point A on the line. */
+    private final double ay;
+    /** X-coordinate of point B on the line. */
+    private final double bx;
+    /** Y-coordinate of point B on the line. */
+    private final double by;
+    /** Balance parameter determining number of sources and sinks vertices. */
+    private final double balance;
+    /** Tolerance parameter increasing graph weight. */
+    private final double tolerance;
+    /** True if push-relabel is used instead of Dinic's algorithm. */
+    private final boolean pushRelabel;
+    /** Node of flow network representing each vertex. */
+    private int[] nodeOf;
+    /** Weight of vertices represented by each node. */
+    private double[] nodeWeights;
+    /** Flow network between contracted source and sink. */
+    private FlowNetwork network;
+    /** Value of maximum flow, it is weight of minimum cut. */
+    private double maxFlow = 0;
+    /** Part (0 or 1) of each vertex. */
+    private int[] sides = null;
+
+    /**
+     * Constructor of bisection along line going through points A and B.
+     * @param graph         divided graph.
+     * @param ax            x-coordinate of point A.
+     * @param ay            y-coordinate of point A.
+     * @param bx            x-coordinate of point B.
+     * @param by            y-coordinate of point B.
+     * @param balance       ratio of source vertices and of sink vertices.
+     * @param tolerance     tolerance of part weight.
+     * @param pushRelabel   true if maximum flow is computed by push-relabel, false for Dinic's algorithm.
+     */
+    public InertialFlowCut(CompactGraph graph, double ax, double ay, double bx, double by,
+                           double balance, double tolerance, boolean pushRelabel) {
+        this.graph = graph;
+        this.ax = ax;
+        this.ay = ay;
+        this.bx = bx;
+        this.by = by;
+        this.balance = balance;
+        this.tolerance = tolerance;
+        this.pushRelabel = pushRelabel;
+    }
+
+    /**
+     * Computes bisection. Computation is aborted when maximum flow exceeds given bound.
+     * @param fraction  target fraction of graph weight in part 0.
+     * @param bound     supplier of the highest acceptable flow.
+     * @return true if bisection was computed, false if it was aborted.
+     */
+    public boolean compute(double fraction, DoubleSupplier bound) {
+        int[] vertexOrder = projectAndSortVertices();
+        buildNetwork(vertexOrder);
+        MaxFlowSolver solver = pushRelabel ? new PushRelabelMaxFlow(network) : new DinicMaxFlow(network);
+        if (!solver.compute(SOURCE, SINK, bound)) {
+            return false;
+        }
+        maxFlow = solver.getFlow();
+        sides = extractCut(vertexOrder, fraction * graph.getTotalWeight());
+        return true;
+    }
+
+    /**
+     * Gets value of maximum flow, it is weight of minimum cut between source and sink.
+     * @return value of maximum flow.
+     */
+    public double getFlow() {
+        return maxFlow;
+    }
+
+    /**
+     * Gets computed bisection.
+     * @return part (0 or 1) of each vertex or null if bisection was not computed.
+     */
+    public int[] getSides() {
+        return sides;
+    }
+
+    /**
+     * Builds flow network. The first vertices in projection order are contracted into source node,
+     * the last vertices into sink node and each other vertex has its own node.
+     * @param vertexOrder       dense vertex indices in order of projections.
+     */
+    private void buildNetwork(int[] vertexOrder) {
+        int n = vertexOrder.length;
+        int verticesCount = (int) (balance * n);
+        int sinkStart = Math.max(verticesCount, n - verticesCount);
+        nodeOf = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (i < verticesCount) {
+                nodeOf[vertexOrder[i]] = SOURCE;
+            } else if (i >= sinkStart) {
+                nodeOf[vertexOrder[i]] = SINK;
+            } else {
+                nodeOf[vertexOrder[i]] = 2 + i - verticesCount;
+            }
+        }
+        int nodeCount = 2 + sinkStart - verticesCount;
+        nodeWeights = new double[nodeCount];
+        int edgeCount = 0;
+        for (int v = 0; v < n; v++) {
+            nodeWeights[nodeOf[v]] += graph.getVertexWeight(v);
+            for (int arc = graph.getOutStart(v); arc < graph.getOutEnd(v); arc++) {
+                if (nodeOf[v] != nodeOf[graph.getOutTarget(arc)]) {
+                    edgeCount++;
+                }
+            }
+        }
+        network = new FlowNetwork(nodeCount, edgeCount);
+        for (int v = 0; v < n; v++) {
+            for (int arc = graph.getOutStart(v); arc < graph.getOutEnd(v); arc++) {
+                int u = nodeOf[graph.getOutTarget(arc)];
+                if (nodeOf[v] != u) {
+                    network.addEdge(nodeOf[v], u, graph.getOutWeight(arc));
+                }
+            }
+        }
+    }
+
+    /**
+     * Extracts minimum cut from residual network and adjusts its balance.
+     * Nodes reachable from source and nodes not reaching sink by non-saturated arcs both give
+     * minimum cut, the one with part 0 closer to target weight is used. When weight of part 0
+     * still differs from target weight by more than tolerance, vertices are moved between
+     * parts in projection order, from the source side end when part 0 is too light and from
+     * the sink side end when it is too heavy.
+     * @param vertexOrder       dense vertex indices in order of projections.
+     * @param targetWeight      target weight of part 0.
+     * @return part (0 or 1) of each vertex.
+     */
+    private int[] extractCut(int[] vertexOrder, double targetWeight) {
+        BitSet part = searchResidual(SOURCE, false);
+        BitSet sinkSide = searchResidual(SINK, true);
+        sinkSide.flip(0, network.nodeCount);
+        double weight = getWeight(part);
+        double sinkSideWeight = getWeight(sinkSide);
+        if (Math.abs(sinkSideWeight - targetWeight) < Math.abs(weight - targetWeight)) {
+            part = sinkSide;
+            weight = sinkSideWeight;
+        }
+        int[] vertexSides = new int[vertexOrder.length];
+        for (int v = 0; v < vertexSides.length; v++) {
+            vertexSides[v] = part.get(nodeOf[v]) ? 0 : 1;
+        }
+        for (int i = 0; i < vertexOrder.length && weight < targetWeight - tolerance; i++) {
+            int v = vertexOrder[i];
+            if (vertexSides[v] == 1) {
+                vertexSides[v] = 0;
+                weight += graph.getVertexWeight(v);
+            }
+        }
+        for (int i = vertexOrder.length - 1; i >= 0 && weight > targetWeight + tolerance; i--) {
+            int v = vertexOrder[i];
+            if (vertexSides[v] == 0) {
+                vertexSides[v] = 1;
+                weight -= graph.getVertexWeight(v);
+            }
+        }
+        return vertexSides;
+    }
+
+    /**
+     * Breath-First Search over non-saturated arcs of residual network.
+     * @param start     node where search starts.
+     * @param reverse   true if arcs are followed against their direction, that is nodes
+     *                  which can send flow to start are found.
+     * @return set of found nodes.
+     */
+    private BitSet searchResidual(int start, boolean reverse) {
+        BitSet found = new BitSet(network.nodeCount);
+        int[] queue = new int[network.nodeCount];
+        found.set(start);
+        queue[0] = start;
+        int queueEnd = 1;
+        for (int i = 0; i < queueEnd; i++) {
+            int u = queue[i];
+            for (int arc = network.head[u]; arc != -1; arc = network.next[arc]) {
+                int v = network.to[arc];
+                if (!found.get(v) && network.residual(reverse ? arc ^ 1 : arc) > FlowNetwork.EPSILON) {
+                    found.set(v);
+                    queue[queueEnd++] = v;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Computes weight of vertices represented by set of nodes.
+     * @param nodes     set of nodes.
+     * @return weight of vertices.
+     */
+    private double getWeight(BitSet nodes) {
+        double weight = 0;
+        for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+            weight += nodeWeights[node];
+        }
+        return weight;
+    }
+
+    /**
+     * Projects orthogonally vertices onto picked line.
+     * Vertices are sorted by order of appearances on the line, that is by x-coordinate
+     * of projection or by y-coordinate of projection if the line is vertical.
+     * Vertices with the same projection keep order of their dense indices.
+     * @return dense vertex indices in order of projections.
+     */
+    private int[] projectAndSortVertices(){
+        double dx = by - ay;
+        double dy = ax - bx;
+        double lengthSquared = dx*dx + dy*dy;
+        boolean vertical = Math.abs(dx) <= 0.00001 * Math.sqrt(lengthSquared);
+        double[] keys = new double[graph.getVertexCount()];
+        if (lengthSquared > 0) {
+            for (int v = 0; v < keys.length; v++) {
+                double t = ((graph.getX(v) - ax)*dx + (graph.getY(v) - ay)*dy) / lengthSquared;
+                keys[v] = vertical ? ay + t*dy : ax + t*dx;
+            }
+        }
+        return IndexSort.sort(keys);
+    }
+}
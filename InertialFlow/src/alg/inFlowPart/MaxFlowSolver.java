@@ -0,0 +1,27 @@
+package alg.inFlowPart;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Interface of maximum flow computation on {@link FlowNetwork}.
+ * After successful computation flows of the network form maximum flow.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public interface MaxFlowSolver {
+
+    /**
+     * Computes maximum flow. Computation is aborted when flow exceeds given bound.
+     * @param s         source node.
+     * @param t         sink node.
+     * @param bound     supplier of the highest acceptable flow.
+     * @return true if maximum flow was computed, false if it was aborted.
+     */
+    boolean compute(int s, int t, DoubleSupplier bound);
+
+    /**
+     * Gets value of maximum flow.
+     * @return value of maximum flow.
+     */
+    double getFlow();
+}
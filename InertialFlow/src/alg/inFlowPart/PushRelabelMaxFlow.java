@@ -0,0 +1,259 @@
+package alg.inFlowPart;
+
+import java.util.Arrays;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Implementation of highest-label push-relabel maximum flow on residual network.
+ * In the first phase active nodes with the highest label are discharged, labels are
+ * periodically recomputed by BFS from sink (global relabeling) and nodes above an empty
+ * label are lifted at once (gap heuristic). The first phase ends with maximum preflow,
+ * in the second phase the remaining excess is returned to source, so the result is flow.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class PushRelabelMaxFlow implements MaxFlowSolver {
+    /** Number of relabels between global relabelings per node. */
+    private static final double GLOBAL_RELABEL_FREQUENCY = 1.0;
+    /** Residual network. */
+    private final FlowNetwork network;
+    /** Number of nodes. */
+    private final int n;
+    /** Label of each node. */
+    private final int[] label;
+    /** Excess of each node. */
+    private final double[] excess;
+    /** Next arc to be tried from each node. */
+    private final int[] currentArc;
+    /** First active node with each label, -1 if there is none. */
+    private final int[] activeHead;
+    /** Next active node with the same label. */
+    private final int[] activeNext;
+    /** Number of nodes with each label. */
+    private final int[] labelCount;
+    /** Queue of BFS, it is also used as stack in the second phase. */
+    private final int[] queue;
+    /** The highest label that may have active node. */
+    private int maxActive = 0;
+    /** Number of relabels since the last global relabeling. */
+    private int relabels = 0;
+    /** Sink node of the computation, -1 before computation. */
+    private int sink = -1;
+
+    /**
+     * Constructor of solver.
+     * @param network   residual network, flows are updated.
+     */
+    public PushRelabelMaxFlow(FlowNetwork network) {
+        this.network = network;
+        this.n = network.nodeCount;
+        this.label = new int[n];
+        this.excess = new double[n];
+        this.currentArc = new int[n];
+        this.activeHead = new int[n];
+        this.activeNext = new int[n];
+        this.labelCount = new int[2 * n + 1];
+        this.queue = new int[n];
+    }
+
+    @Override
+    public boolean compute(int s, int t, DoubleSupplier bound) {
+        if (s == t) {
+            return true;
+        }
+        sink = t;
+        for (int arc = network.head[s]; arc != -1; arc = network.next[arc]) {
+            double amount = network.residual(arc);
+            if (amount > FlowNetwork.EPSILON) {
+                network.push(arc, amount);
+                excess[network.to[arc]] += amount;
+                excess[s] -= amount;
+            }
+        }
+        globalRelabel(s, t);
+        while (maxActive >= 0) {
+            int u = activeHead[maxActive];
+            if (u == -1) {
+                maxActive--;
+                continue;
+            }
+            activeHead[maxActive] = activeNext[u];
+            if (label[u] != maxActive) {
+                continue;
+            }
+            discharge(u, s, t);
+            if (excess[t] > bound.getAsDouble()) {
+                return false;
+            }
+            if (relabels > GLOBAL_RELABEL_FREQUENCY * n) {
+                globalRelabel(s, t);
+            }
+        }
+        returnExcess(s, t);
+        return true;
+    }
+
+    @Override
+    public double getFlow() {
+        return sink == -1 ? 0 : excess[sink];
+    }
+
+    /**
+     * Discharges active node in the first phase. Excess is pushed through admissible arcs,
+     * node is relabeled when there is none. Node that reaches label n is left inactive.
+     * @param u     discharged node.
+     * @param s     source node.
+     * @param t     sink node.
+     */
+    private void discharge(int u, int s, int t) {
+        while (excess[u] > FlowNetwork.EPSILON) {
+            int arc = currentArc[u];
+            while (arc != -1 && (network.residual(arc) <= FlowNetwork.EPSILON
+                    || label[u] != label[network.to[arc]] + 1)) {
+                arc = network.next[arc];
+            }
+            currentArc[u] = arc;
+            if (arc != -1) {
+                int v = network.to[arc];
+                double amount = Math.min(excess[u], network.residual(arc));
+                boolean activated = excess[v] <= FlowNetwork.EPSILON;
+                network.push(arc, amount);
+                excess[u] -= amount;
+                excess[v] += amount;
+                if (activated && v != s && v != t) {
+                    activate(v);
+                }
+            } else {
+                int oldLabel = label[u];
+                relabel(u);
+                relabels++;
+                if (labelCount[oldLabel] == 0 && oldLabel < n) {
+                    gap(oldLabel);
+                }
+                if (label[u] >= n) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets label of node to one more than the lowest label of residual neighbour.
+     * @param u     relabeled node.
+     */
+    private void relabel(int u) {
+        int newLabel = 2 * n;
+        for (int arc = network.head[u]; arc != -1; arc = network.next[arc]) {
+            if (network.residual(arc) > FlowNetwork.EPSILON) {
+                newLabel = Math.min(newLabel, label[network.to[arc]] + 1);
+            }
+        }
+        labelCount[label[u]]--;
+        label[u] = newLabel;
+        labelCount[newLabel]++;
+        currentArc[u] = network.head[u];
+    }
+
+    /**
+     * Lifts all nodes with label above empty label to label n, they cannot reach sink.
+     * @param emptyLabel    label without nodes.
+     */
+    private void gap(int emptyLabel) {
+        for (int v = 0; v < n; v++) {
+            if (label[v] > emptyLabel && label[v] < n) {
+                labelCount[label[v]]--;
+                label[v] = n;
+                labelCount[n]++;
+                currentArc[v] = network.head[v];
+            }
+        }
+    }
+
+    /**
+     * Sets labels to distances to sink in residual network and rebuilds active nodes.
+     * Nodes that cannot reach sink get label n.
+     * @param s     source node.
+     * @param t     sink node.
+     */
+    private void globalRelabel(int s, int t) {
+        relabels = 0;
+        Arrays.fill(label, n);
+        Arrays.fill(labelCount, 0);
+        label[t] = 0;
+        queue[0] = t;
+        int queueEnd = 1;
+        for (int i = 0; i < queueEnd; i++) {
+            int v = queue[i];
+            for (int arc = network.head[v]; arc != -1; arc = network.next[arc]) {
+                int u = network.to[arc];
+                if (u != s && label[u] == n && network.residual(arc ^ 1) > FlowNetwork.EPSILON) {
+                    label[u] = label[v] + 1;
+                    queue[queueEnd++] = u;
+                }
+            }
+        }
+        Arrays.fill(activeHead, -1);
+        maxActive = -1;
+        for (int v = 0; v < n; v++) {
+            labelCount[label[v]]++;
+            currentArc[v] = network.head[v];
+            if (v != s && v != t && excess[v] > FlowNetwork.EPSILON) {
+                activate(v);
+            }
+        }
+    }
+
+    /**
+     * Adds node to active nodes of its label if the label is below n.
+     * @param v     node with excess.
+     */
+    private void activate(int v) {
+        if (label[v] < n) {
+            activeNext[v] = activeHead[label[v]];
+            activeHead[label[v]] = v;
+            maxActive = Math.max(maxActive, label[v]);
+        }
+    }
+
+    /**
+     * Returns excess of nodes that cannot reach sink back to source by generic push-relabel.
+     * Labels of these nodes are at least n, so no flow reaches sink in this phase.
+     * @param s     source node.
+     * @param t     sink node.
+     */
+    private void returnExcess(int s, int t) {
+        int stackSize = 0;
+        boolean[] stacked = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            if (v != s && v != t && excess[v] > FlowNetwork.EPSILON) {
+                queue[stackSize++] = v;
+                stacked[v] = true;
+            }
+        }
+        while (stackSize > 0) {
+            int u = queue[--stackSize];
+            stacked[u] = false;
+            while (excess[u] > FlowNetwork.EPSILON) {
+                int arc = currentArc[u];
+                while (arc != -1 && (network.residual(arc) <= FlowNetwork.EPSILON
+                        || label[u] != label[network.to[arc]] + 1)) {
+                    arc = network.next[arc];
+                }
+                currentArc[u] = arc;
+                if (arc == -1) {
+                    relabel(u);
+                    continue;
+                }
+                int v = network.to[arc];
+                double amount = Math.min(excess[u], network.residual(arc));
+                network.push(arc, amount);
+                excess[u] -= amount;
+                excess[v] += amount;
+                if (v != s && v != t && !stacked[v]) {
+                    queue[stackSize++] = v;
+                    stacked[v] = true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package alg.labelPropagationPart;
+
+import bp.roadnetworkpartitioning.CompactGraph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Implementation of size-constrained label propagation over an existing partition.
+ * In each round all vertices are visited, vertex moves to the neighbour part with the strongest
+ * connection (total weight of edges to the part) if the part stays under the weight bound.
+ * Vertex stays in its part when the connection is equal, other ties go to the lower part number.
+ * Each round has two phases. In the first phase vertices are split into chunks that are swept
+ * in parallel, each vertex picks its target part against parts and part weights from the start
+ * of the round, nothing is changed. In the second phase the picked moves are applied in order
+ * of vertices and each move is checked against the bound again, so the result does not depend
+ * on scheduling. The class can be used as refinement of partition created by other algorithm.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class LabelPropagation {
+    /** Number of vertices swept by one task. */
+    private static final int CHUNK_SIZE = 1 << 12;
+    /** Compact form of partitioned graph. */
+    private final CompactGraph graph;
+    /** Part number of each vertex, updated by moves. */
+    private final int[] partOf;
+    /** Number of parts. */
+    private final int partsCount;
+    /** Max. weight of part. */
+    private final double maxPartWeight;
+    /** Weight of each part. */
+    private final double[] partWeights;
+    /** Target part picked for each vertex in the current round, valid only for vertices that want to move. */
+    private final int[] targets;
+
+    /** Task sweeping range of chunks, it splits itself in half until one chunk is left. */
+    @SuppressWarnings("serial")
+    private final class SweepTask extends RecursiveAction {
+        /** Vertices that want to move of each chunk. */
+        private final int[][] moves;
+        /** First chunk of range. */
+        private final int from;
+        /** Chunk after last chunk of range. */
+        private final int to;
+
+        /**
+         * Constructor of task sweeping chunks from..to-1.
+         * @param moves     vertices that want to move of each chunk, it is filled.
+         * @param from      first chunk.
+         * @param to        chunk after last chunk.
+         */
+        private SweepTask(int[][] moves, int from, int to) {
+            this.moves = moves;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                int start = from * CHUNK_SIZE;
+                moves[from] = sweep(start, Math.min(start + CHUNK_SIZE, partOf.length));
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SweepTask(moves, from, middle), new SweepTask(moves, middle, to));
+        }
+    }
+
+    /**
+     * Constructor of label propagation.
+     * @param graph             compact form of partitioned graph.
+     * @param partOf            part number of each vertex, it is updated by moves.
+     * @param partsCount        number of parts.
+     * @param maxPartWeight     max. weight of part, moves into heavier part are not allowed.
+     */
+    public LabelPropagation(CompactGraph graph, int[] partOf, int partsCount, double maxPartWeight) {
+        this.graph = graph;
+        this.partOf = partOf;
+        this.partsCount = partsCount;
+        this.maxPartWeight = maxPartWeight;
+        this.partWeights = new double[partsCount];
+        for (int v = 0; v < partOf.length; v++) {
+            partWeights[partOf[v]] += graph.getVertexWeight(v);
+        }
+        this.targets = new int[partOf.length];
+    }
+
+    /**
+     * Runs rounds until no vertex moves or round limit is reached.
+     * @param rounds    max. number of rounds.
+     * @return number of executed rounds.
+     */
+    public int run(int rounds) {
+        int chunks = (partOf.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int[][] moves = new int[chunks][];
+        for (int round = 0; round < rounds; round++) {
+            if (chunks == 1) {
+                moves[0] = sweep(0, partOf.length);
+            } else if (chunks > 1) {
+                ForkJoinPool.commonPool().invoke(new SweepTask(moves, 0, chunks));
+            }
+            if (applyMoves(moves) == 0) {
+                return round + 1;
+            }
+        }
+        return rounds;
+    }
+
+    /**
+     * Gets current weight of part.
+     * @param part  part number.
+     * @return weight of part.
+     */
+    public double getPartWeight(int part) {
+        return partWeights[part];
+    }
+
+    /**
+     * Picks target part of vertices from..to-1, parts and part weights are not changed.
+     * @param from  first vertex.
+     * @param to    vertex after last vertex.
+     * @return vertices that want to move in ascending order.
+     */
+    private int[] sweep(int from, int to) {
+        double[] connection = new double[partsCount];
+        boolean[] isTouched = new boolean[partsCount];
+        int[] touched = new int[partsCount];
+        int[] moving = new int[to - from];
+        int movingCount = 0;
+        for (int v = from; v < to; v++) {
+            int touchedCount = 0;
+            for (int arc = graph.getOutStart(v); arc < graph.getOutEnd(v); arc++) {
+                touchedCount = connect(partOf[graph.getOutTarget(arc)], graph.getOutWeight(arc),
+                        connection, isTouched, touched, touchedCount);
+            }
+            for (int arc = graph.getInStart(v); arc < graph.getInEnd(v); arc++) {
+                touchedCount = connect(partOf[graph.getInSource(arc)], graph.getInWeight(arc),
+                        connection, isTouched, touched, touchedCount);
+            }
+            int part = partOf[v];
+            double weight = graph.getVertexWeight(v);
+            int best = part;
+            double bestConnection = connection[part];
+            for (int i = 0; i < touchedCount; i++) {
+                int candidate = touched[i];
+                boolean stronger = connection[candidate] > bestConnection
+                        || (connection[candidate] == bestConnection && best != part && candidate < best);
+                if (candidate != part && stronger && partWeights[candidate] + weight <= maxPartWeight) {
+                    best = candidate;
+                    bestConnection = connection[candidate];
+                }
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                connection[touched[i]] = 0;
+                isTouched[touched[i]] = false;
+            }
+            if (best != part) {
+                targets[v] = best;
+                moving[movingCount++] = v;
+            }
+        }
+        return Arrays.copyOf(moving, movingCount);
+    }
+
+    /**
+     * Applies picked moves in order of vertices, move is skipped if target part would exceed the bound.
+     * @param moves     vertices that want to move of each chunk.
+     * @return number of moved vertices.
+     */
+    private int applyMoves(int[][] moves) {
+        int moved = 0;
+        for (int[] chunkMoves : moves) {
+            for (int v : chunkMoves) {
+                double weight = graph.getVertexWeight(v);
+                if (partWeights[targets[v]] + weight <= maxPartWeight) {
+                    partWeights[targets[v]] += weight;
+                    partWeights[partOf[v]] -= weight;
+                    partOf[v] = targets[v];
+                    moved++;
+                }
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Adds weight of edge to connection of vertex to part.
+     * @param part          part of neighbour.
+     * @param weight        weight of edge.
+     * @param connection    connection to each part.
+     * @param isTouched     flag of parts adjacent to vertex.
+     * @param touched       parts adjacent to vertex.
+     * @param touchedCount  number of touched parts.
+     * @return number of touched parts after adding.
+     */
+    private static int connect(int part, double weight, double[] connection, boolean[] isTouched, int[] touched,
+                               int touchedCount) {
+        if (!isTouched[part]) {
+            isTouched[part] = true;
+            touched[touchedCount++] = part;
+        }
+        connection[part] += Math.abs(weight);
+        return touchedCount;
+    }
+}
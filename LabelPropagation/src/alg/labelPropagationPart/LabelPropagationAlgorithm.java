@@ -0,0 +1,156 @@
+package alg.labelPropagationPart;
+
+import bp.roadnetworkpartitioning.*;
+
+import java.util.*;
+
+/**
+ * Class with size-constrained label propagation algorithm implementation.
+ * Vertices are ordered by Breadth-First Search from a peripheral vertex and the order is cut
+ * into parts of equal weight, the partition is then improved by {@link LabelPropagation}
+ * with part weight bound given by allowed imbalance. Whole computation is linear in size of the graph
+ * for each round.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class LabelPropagationAlgorithm extends APartitionAlgorithm {
+    /** Allowed imbalance of parts in percent. */
+    private double imbalance = 3;
+    /** Max. number of label propagation rounds. */
+    private int rounds = 10;
+
+    @Override
+    protected GraphPartition createGraphPartition() {
+        GraphPartition graphPartition = null;
+        if (getGraph() != null) {
+            readParameters();
+            CompactGraph compactGraph = getCompactGraph();
+            int[] partOf = createInitialPartition(compactGraph);
+            double maxPartWeight = (1 + imbalance / 100) * compactGraph.getTotalWeight() / getPartsCount();
+            new LabelPropagation(compactGraph, partOf, getPartsCount(), maxPartWeight).run(rounds);
+            graphPartition = new GraphPartition(compactGraph, partOf, getPartsCount());
+        }
+        return graphPartition;
+    }
+
+    @Override
+    public Map<String, String> getAllCustomParameters() {
+        Map<String, String> customParameters = new TreeMap<>();
+        customParameters.put("Imbalance", "3");
+        customParameters.put("Rounds", "10");
+        return customParameters;
+    }
+
+    @Override
+    public Map<String, String> getAllCustomParametersDescriptions() {
+        Map<String, String> customParametersDescriptions = new TreeMap<>();
+        customParametersDescriptions.put("Imbalance", "Allowed excess of part weight over ideal part weight in percent.");
+        customParametersDescriptions.put("Rounds", "Max. number of label propagation rounds, "
+                + "propagation stops earlier when no vertex moves.");
+        return customParametersDescriptions;
+    }
+
+    @Override
+    public String getName() {
+        return "Label Propagation";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Size-constrained Label Propagation Algorithm";
+    }
+
+    /**
+     * Reads imbalance and rounds parameters.
+     */
+    private void readParameters() {
+        if (getParameters() != null && getParameters().containsKey("Imbalance")) {
+            try {
+                double inputImbalance = Double.parseDouble(getParameters().get("Imbalance"));
+                if (inputImbalance >= 0) {
+                    imbalance = inputImbalance;
+                }
+            } catch (Exception e) {
+                System.out.println("Could not parse " + getParameters().get("Imbalance") + "to double." );
+            }
+        }
+        if (getParameters() != null && getParameters().containsKey("Rounds")) {
+            try {
+                int inputRounds = Integer.parseInt(getParameters().get("Rounds").trim());
+                if (inputRounds >= 0) {
+                    rounds = inputRounds;
+                }
+            } catch (Exception e) {
+                System.out.println("Could not parse " + getParameters().get("Rounds") + "to int." );
+            }
+        }
+    }
+
+    /**
+     * Creates initial partition by cutting Breadth-First Search order into parts of equal weight.
+     * Search starts at the vertex found last by search from vertex 0, that is a peripheral vertex,
+     * components of the graph are searched one after another.
+     * @param compactGraph      compact form of partitioned graph.
+     * @return part number of each vertex.
+     */
+    private int[] createInitialPartition(CompactGraph compactGraph) {
+        int n = compactGraph.getVertexCount();
+        int[] partOf = new int[n];
+        if (n == 0) {
+            return partOf;
+        }
+        int[] order = searchOrder(compactGraph, 0);
+        order = searchOrder(compactGraph, order[order.length - 1]);
+        double totalWeight = compactGraph.getTotalWeight();
+        double weight = 0;
+        for (int v : order) {
+            double vertexWeight = compactGraph.getVertexWeight(v);
+            int part = totalWeight > 0 ? (int) ((weight + vertexWeight / 2) * getPartsCount() / totalWeight) : 0;
+            partOf[v] = Math.max(0, Math.min(getPartsCount() - 1, part));
+            weight += vertexWeight;
+        }
+        return partOf;
+    }
+
+    /**
+     * Orders all vertices by Breadth-First Search, edges are followed in both directions.
+     * When a component is finished, search continues from the lowest unvisited vertex.
+     * @param compactGraph      compact form of partitioned graph.
+     * @param start             dense index of starting vertex.
+     * @return dense vertex indices in order of visits.
+     */
+    private int[] searchOrder(CompactGraph compactGraph, int start) {
+        int n = compactGraph.getVertexCount();
+        int[] queue = new int[n];
+        boolean[] visited = new boolean[n];
+        int queueEnd = 0;
+        int next = 0;
+        int s = start;
+        while (queueEnd < n) {
+            while (visited[s]) {
+                s = next++;
+            }
+            visited[s] = true;
+            int queueStart = queueEnd;
+            queue[queueEnd++] = s;
+            for (int i = queueStart; i < queueEnd; i++) {
+                int v = queue[i];
+                for (int arc = compactGraph.getOutStart(v); arc < compactGraph.getOutEnd(v); arc++) {
+                    int u = compactGraph.getOutTarget(arc);
+                    if (!visited[u]) {
+                        visited[u] = true;
+                        queue[queueEnd++] = u;
+                    }
+                }
+                for (int arc = compactGraph.getInStart(v); arc < compactGraph.getInEnd(v); arc++) {
+                    int u = compactGraph.getInSource(arc);
+                    if (!visited[u]) {
+                        visited[u] = true;
+                        queue[queueEnd++] = u;
+                    }
+                }
+            }
+        }
+        return queue;
+    }
+}
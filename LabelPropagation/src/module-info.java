@@ -0,0 +1,4 @@
+module LabelPropagation {
+    requires bp.roadnetworkpartitioning;
+    exports alg.labelPropagationPart;
+}
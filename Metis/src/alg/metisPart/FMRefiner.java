@@ -0,0 +1,246 @@
+package alg.metisPart;
+
+import java.util.Arrays;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Implementation of Fiduccia-Mattheyses refinement of bisection.
+ * Only border vertices are kept in gain buckets, gains of neighbours are updated
+ * incrementally after each move and at the end of each pass the moves after
+ * the best seen state are rolled back.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class FMRefiner {
+    /** Maximal number of passes. */
+    private static final int MAX_PASSES = 8;
+    /** Maximal absolute value of key in gain buckets. */
+    private static final int MAX_KEY = 1000;
+    /** Refined graph. */
+    private final MetisGraph graph;
+    /** Target weight of each side. */
+    private final double[] targetWeights;
+    /** Maximal allowed weight of each side. */
+    private final double[] maxWeights;
+    /** Current weight of each side. */
+    private final double[] partWeights = new double[2];
+    /** Weight of edges of each vertex going to the same side. */
+    private final double[] internal;
+    /** Weight of edges of each vertex going to the other side. */
+    private final double[] external;
+    /** Gain buckets of border vertices of each side. */
+    private final GainBuckets[] buckets;
+    /** Flag of vertices already moved in current pass. */
+    private final boolean[] locked;
+    /** Vertices moved in current pass in order of moving. */
+    private final int[] moves;
+    /** Weight of cut edges after the last pass. */
+    private double lastCut = Double.MAX_VALUE;
+
+    /**
+     * Constructor of refiner.
+     * @param graph             refined graph.
+     * @param targetWeights     target weight of each side.
+     * @param imbalance         allowed imbalance of side weight above its target weight.
+     */
+    public FMRefiner(MetisGraph graph, double[] targetWeights, double imbalance) {
+        this.graph = graph;
+        this.targetWeights = targetWeights;
+        this.maxWeights = new double[]{(1 + imbalance) * targetWeights[0], (1 + imbalance) * targetWeights[1]};
+        this.internal = new double[graph.n];
+        this.external = new double[graph.n];
+        this.locked = new boolean[graph.n];
+        this.moves = new int[graph.n];
+        double maxGain = 0;
+        for (int v = 0; v < graph.n; v++) {
+            double degree = 0;
+            for (int j = graph.xadj[v]; j < graph.xadj[v + 1]; j++) {
+                degree += graph.adjwgt[j];
+            }
+            maxGain = Math.max(maxGain, degree);
+        }
+        this.buckets = new GainBuckets[]{new GainBuckets(graph.n, maxGain, MAX_KEY),
+                new GainBuckets(graph.n, maxGain, MAX_KEY)};
+    }
+
+    /**
+     * Refines bisection. Balance is restored first, then passes run while they improve the cut.
+     * @param where     side (0 or 1) of each vertex, it is updated.
+     */
+    public void refine(int[] where) {
+        refine(where, () -> Double.MAX_VALUE);
+    }
+
+    /**
+     * Refines bisection. Balance is restored first, then passes run while they improve the cut.
+     * Refinement is aborted when cut after a pass is above given bound.
+     * @param where     side (0 or 1) of each vertex, it is updated.
+     * @param bound     supplier of the highest acceptable cut weight.
+     * @return true if refinement was finished, false if it was aborted.
+     */
+    public boolean refine(int[] where, DoubleSupplier bound) {
+        computeDegrees(where);
+        balance(where);
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            computeDegrees(where);
+            boolean improved = runPass(where);
+            if (lastCut > bound.getAsDouble()) {
+                return false;
+            }
+            if (!improved) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets weight of cut edges after the last pass.
+     * @return weight of cut edges.
+     */
+    public double getCut() {
+        return lastCut;
+    }
+
+    /**
+     * Computes weights of sides and internal and external weights of vertices.
+     * @param where     side of each vertex.
+     */
+    private void computeDegrees(int[] where) {
+        partWeights[0] = 0;
+        partWeights[1] = 0;
+        for (int v = 0; v < graph.n; v++) {
+            partWeights[where[v]] += graph.vwgt[v];
+            double in = 0;
+            double out = 0;
+            for (int j = graph.xadj[v]; j < graph.xadj[v + 1]; j++) {
+                if (where[graph.adjncy[j]] == where[v]) {
+                    in += graph.adjwgt[j];
+                } else {
+                    out += graph.adjwgt[j];
+                }
+            }
+            internal[v] = in;
+            external[v] = out;
+        }
+    }
+
+    /**
+     * Moves border vertices with the highest gain from side heavier than allowed
+     * until the side is within allowed weight.
+     * @param where     side of each vertex.
+     */
+    private void balance(int[] where) {
+        int from = partWeights[0] > maxWeights[0] ? 0 : (partWeights[1] > maxWeights[1] ? 1 : -1);
+        if (from == -1) {
+            return;
+        }
+        int to = 1 - from;
+        Arrays.fill(locked, false);
+        for (int v = 0; v < graph.n; v++) {
+            if (where[v] == from && external[v] > 0) {
+                buckets[from].insert(v, external[v] - internal[v]);
+            }
+        }
+        while (partWeights[from] > maxWeights[from]) {
+            int v = buckets[from].pollMax();
+            if (v == -1 || partWeights[to] + graph.vwgt[v] > partWeights[from]) {
+                break;
+            }
+            locked[v] = true;
+            move(v, where, true);
+        }
+        buckets[from].clear();
+        buckets[to].clear();
+    }
+
+    /**
+     * Runs one pass of refinement. Vertices are moved from side that exceeds its target
+     * weight more, the best state (the lowest cut that keeps balance) is kept.
+     * @param where     side of each vertex.
+     * @return true if the pass improved the bisection.
+     */
+    private boolean runPass(int[] where) {
+        Arrays.fill(locked, false);
+        double cut = 0;
+        for (int v = 0; v < graph.n; v++) {
+            if (external[v] > 0) {
+                buckets[where[v]].insert(v, external[v] - internal[v]);
+                cut += external[v];
+            }
+        }
+        cut /= 2;
+        double bestCut = cut;
+        double bestDiff = Math.abs(partWeights[0] - targetWeights[0]);
+        int bestMoves = 0;
+        int movesCount = 0;
+        int limit = Math.min(Math.max(graph.n / 100, 25), 150);
+        while (true) {
+            int from = partWeights[0] - targetWeights[0] > partWeights[1] - targetWeights[1] ? 0 : 1;
+            int to = 1 - from;
+            int v = buckets[from].pollMax();
+            if (v == -1) {
+                break;
+            }
+            cut -= external[v] - internal[v];
+            locked[v] = true;
+            moves[movesCount++] = v;
+            move(v, where, true);
+            double diff = Math.abs(partWeights[0] - targetWeights[0]);
+            if ((cut < bestCut && partWeights[to] <= maxWeights[to]) || (cut == bestCut && diff < bestDiff)) {
+                bestCut = cut;
+                bestDiff = diff;
+                bestMoves = movesCount;
+            } else if (movesCount - bestMoves > limit) {
+                break;
+            }
+        }
+        buckets[0].clear();
+        buckets[1].clear();
+        for (int i = movesCount - 1; i >= bestMoves; i--) {
+            move(moves[i], where, false);
+        }
+        lastCut = bestCut;
+        return bestMoves > 0;
+    }
+
+    /**
+     * Moves vertex to the other side and updates weights of sides and degrees of neighbours.
+     * @param v                 moved vertex.
+     * @param where             side of each vertex.
+     * @param updateBuckets     true if gains of unlocked neighbours should be updated in buckets.
+     */
+    private void move(int v, int[] where, boolean updateBuckets) {
+        int from = where[v];
+        int to = 1 - from;
+        where[v] = to;
+        partWeights[from] -= graph.vwgt[v];
+        partWeights[to] += graph.vwgt[v];
+        double temp = internal[v];
+        internal[v] = external[v];
+        external[v] = temp;
+        for (int j = graph.xadj[v]; j < graph.xadj[v + 1]; j++) {
+            int u = graph.adjncy[j];
+            if (where[u] == to) {
+                internal[u] += graph.adjwgt[j];
+                external[u] -= graph.adjwgt[j];
+            } else {
+                internal[u] -= graph.adjwgt[j];
+                external[u] += graph.adjwgt[j];
+            }
+            if (!updateBuckets || locked[u]) {
+                continue;
+            }
+            GainBuckets side = buckets[where[u]];
+            if (side.contains(u)) {
+                if (external[u] > 0) {
+                    side.update(u, external[u] - internal[u]);
+                } else {
+                    side.remove(u);
+                }
+            } else if (external[u] > 0) {
+                side.insert(u, external[u] - internal[u]);
+            }
+        }
+    }
+}
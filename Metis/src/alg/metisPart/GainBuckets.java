@@ -0,0 +1,127 @@
+package alg.metisPart;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of gain buckets used by Fiduccia-Mattheyses refinement.
+ * Gains are quantized to integer keys -maxKey..maxKey, each key has doubly linked list
+ * of vertices, so insertion, removal and update take constant time and
+ * the vertex with the highest gain is found by moving down from the highest non-empty key.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class GainBuckets {
+    /** Maximal absolute value of key. */
+    private final int maxKey;
+    /** Gain represented by one key step. */
+    private final double scale;
+    /** First vertex of each bucket, -1 if bucket is empty. */
+    private final int[] heads;
+    /** Next vertex in bucket. */
+    private final int[] next;
+    /** Previous vertex in bucket. */
+    private final int[] prev;
+    /** Bucket of each vertex, -1 if vertex is not in buckets. */
+    private final int[] bucketOf;
+    /** Highest bucket that may be non-empty. */
+    private int top = -1;
+    /** Number of vertices in buckets. */
+    private int size = 0;
+
+    /**
+     * Constructor of empty gain buckets.
+     * @param n         number of vertices.
+     * @param maxGain   maximal absolute value of gain.
+     * @param maxKey    maximal absolute value of key.
+     */
+    GainBuckets(int n, double maxGain, int maxKey) {
+        this.maxKey = maxKey;
+        this.scale = maxGain > 0 ? maxGain / maxKey : 1;
+        this.heads = new int[2 * maxKey + 1];
+        Arrays.fill(heads, -1);
+        this.next = new int[n];
+        this.prev = new int[n];
+        this.bucketOf = new int[n];
+        Arrays.fill(bucketOf, -1);
+    }
+
+    /**
+     * Inserts vertex with given gain.
+     * @param v     vertex.
+     * @param gain  gain of moving vertex.
+     */
+    void insert(int v, double gain) {
+        int bucket = (int) Math.round(gain / scale) + maxKey;
+        bucket = Math.max(0, Math.min(2 * maxKey, bucket));
+        bucketOf[v] = bucket;
+        prev[v] = -1;
+        next[v] = heads[bucket];
+        if (heads[bucket] != -1) {
+            prev[heads[bucket]] = v;
+        }
+        heads[bucket] = v;
+        top = Math.max(top, bucket);
+        size++;
+    }
+
+    /**
+     * Removes vertex from buckets.
+     * @param v     vertex.
+     */
+    void remove(int v) {
+        int bucket = bucketOf[v];
+        if (prev[v] != -1) {
+            next[prev[v]] = next[v];
+        } else {
+            heads[bucket] = next[v];
+        }
+        if (next[v] != -1) {
+            prev[next[v]] = prev[v];
+        }
+        bucketOf[v] = -1;
+        size--;
+    }
+
+    /**
+     * Changes gain of vertex in buckets.
+     * @param v     vertex.
+     * @param gain  new gain of moving vertex.
+     */
+    void update(int v, double gain) {
+        remove(v);
+        insert(v, gain);
+    }
+
+    /**
+     * Checks if vertex is in buckets.
+     * @param v     vertex.
+     * @return true if vertex is in buckets.
+     */
+    boolean contains(int v) {
+        return bucketOf[v] != -1;
+    }
+
+    /**
+     * Removes vertex with the highest gain.
+     * @return vertex with the highest gain or -1 if buckets are empty.
+     */
+    int pollMax() {
+        if (size == 0) {
+            return -1;
+        }
+        while (heads[top] == -1) {
+            top--;
+        }
+        int v = heads[top];
+        remove(v);
+        return v;
+    }
+
+    /** Removes all vertices. */
+    void clear() {
+        while (size > 0) {
+            pollMax();
+        }
+        top = -1;
+    }
+}
@@ -0,0 +1,121 @@
+package alg.metisPart;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of greedy k-way refinement of partition.
+ * Border vertices are visited in passes and each of them is moved to the neighbour part
+ * with the highest gain if the move decreases weight of cut edges without exceeding allowed
+ * part weight, or if it improves balance.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class KWayRefiner {
+    /** Maximal number of passes. */
+    private static final int MAX_PASSES = 8;
+    /** Refined graph. */
+    private final MetisGraph graph;
+    /** Maximal allowed weight of part. */
+    private final double maxWeight;
+    /** Current weight of each part. */
+    private final double[] partWeights;
+    /** Weight of edges of currently visited vertex to each part. */
+    private final double[] connectivity;
+    /** Vertex which last touched each part, used to reset connectivity lazily. */
+    private final int[] touchedBy;
+    /** Parts touched by currently visited vertex. */
+    private final int[] touched;
+
+    /**
+     * Constructor of refiner.
+     * @param graph         refined graph.
+     * @param partsCount    number of parts.
+     * @param imbalance     allowed imbalance of part weight above average part weight.
+     */
+    public KWayRefiner(MetisGraph graph, int partsCount, double imbalance) {
+        this.graph = graph;
+        this.maxWeight = (1 + imbalance) * graph.totalWeight / partsCount;
+        this.partWeights = new double[partsCount];
+        this.connectivity = new double[partsCount];
+        this.touchedBy = new int[partsCount];
+        this.touched = new int[partsCount];
+    }
+
+    /**
+     * Refines partition. Passes run while they move any vertex.
+     * @param where     part of each vertex, it is updated.
+     */
+    public void refine(int[] where) {
+        Arrays.fill(partWeights, 0);
+        for (int v = 0; v < graph.n; v++) {
+            partWeights[where[v]] += graph.vwgt[v];
+        }
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            Arrays.fill(touchedBy, -1);
+            boolean moved = false;
+            for (int v = 0; v < graph.n; v++) {
+                moved |= moveVertex(v, where);
+            }
+            if (!moved) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Moves vertex to the best neighbour part if it is worth it.
+     * @param v         vertex.
+     * @param where     part of each vertex.
+     * @return true if vertex was moved.
+     */
+    private boolean moveVertex(int v, int[] where) {
+        int from = where[v];
+        int touchedCount = 0;
+        boolean border = false;
+        for (int j = graph.xadj[v]; j < graph.xadj[v + 1]; j++) {
+            int part = where[graph.adjncy[j]];
+            if (touchedBy[part] != v) {
+                touchedBy[part] = v;
+                connectivity[part] = 0;
+                touched[touchedCount++] = part;
+            }
+            connectivity[part] += graph.adjwgt[j];
+            border |= part != from;
+        }
+        if (!border) {
+            return false;
+        }
+        double own = touchedBy[from] == v ? connectivity[from] : 0;
+        double weight = graph.vwgt[v];
+        boolean overweight = partWeights[from] > maxWeight;
+        int best = -1;
+        double bestGain = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int part = touched[i];
+            if (part == from) {
+                continue;
+            }
+            boolean fits = partWeights[part] + weight <= maxWeight;
+            boolean balancing = overweight && partWeights[part] + weight < partWeights[from];
+            if (!fits && !balancing) {
+                continue;
+            }
+            double gain = connectivity[part] - own;
+            if (best == -1 || gain > bestGain || (gain == bestGain && partWeights[part] < partWeights[best])) {
+                best = part;
+                bestGain = gain;
+            }
+        }
+        if (best == -1) {
+            return false;
+        }
+        boolean improvesBalance = partWeights[best] + weight < partWeights[from];
+        if (bestGain > 0 || overweight || (bestGain == 0 && improvesBalance)) {
+            where[v] = best;
+            partWeights[from] -= weight;
+            partWeights[best] += weight;
+            return true;
+        }
+        return false;
+    }
+}
@@ -3,27 +3,60 @@ package alg.metisPart;
 import bp.roadnetworkpartitioning.*;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Class with METIS algorithm implementation.
+ * Graph is coarsened by Heavy Edge Matching into hierarchy of coarser graphs, the coarsest
+ * graph is partitioned and the partition is projected back one level at a time and refined
+ * on each level. In k-way mode the graph is coarsened once and partitioned into all parts,
+ * in recursive mode the graph is divided by {@link RecursiveBisection} and each part is bisected
+ * by its own multilevel bisection.
  * @author Lucie Roy
- * @version 23-12-2023
+ * @version 18-10-2026
  */
-public class MetisAlgorithm extends APartitionAlgorithm {
+public class MetisAlgorithm extends APartitionAlgorithm implements GraphBisector {
+
+    /** Coarsening stops when graph has at most this number of vertices. */
+    private static final int COARSEN_TO = 100;
+    /** Coarsening stops when level keeps more than this ratio of vertices. */
+    private static final double MIN_REDUCTION = 0.95;
+    /** Number of vertices of the coarsest graph per part in k-way mode. */
+    private static final int COARSEN_TO_PER_PART = 20;
+    /** Name of k-way mode. */
+    private static final String K_WAY = "k-way";
+    /** Name of recursive bisection mode. */
+    private static final String RECURSIVE = "recursive";
+    /** Attempt of initial bisection is aborted when its cut is this times higher than cut of the first attempt. */
+    private static final double ABORT_RATIO = 1.5;
+    /** Random generator used by k-way partitioning. */
+    private Random random;
+    /** Allowed imbalance of part weight above its target weight. */
+    private double imbalance = 0.03;
+    /** Number of attempts of initial bisection. */
+    private int initialAttempts = 8;
 
     @Override
     protected GraphPartition createGraphPartition() {
         GraphPartition graphPartition = null;
         if (getGraph() != null) {
-            List<Graph> graphComponents = new ArrayList<>();
-            graphPartition = new GraphPartition(graphComponents);
-            graphComponents.add(getGraph());
-            while(graphComponents.size() < getPartsCount()) {
-                Set<MetisVertex> coarsenGraph = coarsenGraph(graphComponents.get(0));
-                List<Set<MetisVertex>> graphParts = partitionGraph(coarsenGraph);
-                List<Graph> graphs = uncoarsenGraph(graphParts);
-                graphComponents.remove(0);
-                graphComponents.addAll(graphs);
+            random = new Random(System.nanoTime());
+            String mode = K_WAY;
+            if (getParameters() != null && getParameters().containsKey("Mode")) {
+                mode = getParameters().get("Mode").trim().toLowerCase();
+            }
+            if (getParameters() != null && getParameters().containsKey("Imbalance")) {
+                imbalance = Double.parseDouble(getParameters().get("Imbalance")) / 100;
+            }
+            if (getParameters() != null && getParameters().containsKey("Initial Attempts")) {
+                initialAttempts = Math.max(1, Integer.parseInt(getParameters().get("Initial Attempts").trim()));
+            }
+            if (RECURSIVE.equals(mode)) {
+                graphPartition = partitionByBisection(this, random.nextLong());
+            } else {
+                CompactGraph compactGraph = getCompactGraph();
+                int[] partOf = partitionKWay(MetisGraph.fromCompactGraph(compactGraph));
+                graphPartition = new GraphPartition(compactGraph, partOf, getPartsCount());
             }
         }
         return graphPartition;
@@ -31,532 +64,291 @@ public class MetisAlgorithm extends APartitionAlgorithm {
 
     @Override
     public Map<String, String> getAllCustomParameters() {
-        return null;
+        Map<String, String> customParameters = new TreeMap<>();
+        customParameters.put("Mode", K_WAY);
+        customParameters.put("Imbalance", "3");
+        customParameters.put("Initial Attempts", "8");
+        return customParameters;
     }
 
     @Override
     public Map<String, String> getAllCustomParametersDescriptions() {
-        return null;
+        Map<String, String> customParametersDescriptions = new TreeMap<>();
+        customParametersDescriptions.put("Mode", "Partitioning mode: \"" + K_WAY + "\" coarsens graph once and "
+                + "partitions it into all parts, \"" + RECURSIVE + "\" bisects parts until there are enough of them.");
+        customParametersDescriptions.put("Imbalance", "Allowed imbalance of part weight above ideal part weight in percent.");
+        customParametersDescriptions.put("Initial Attempts", "Number of independent attempts of bisection of the coarsest graph.");
+        return customParametersDescriptions;
     }
 
-    /**
-     * Coarsens graph by Heavy Edge Matching.
-     * @param graph coarsening graph.
-     * @return graph with fewer vertices and edges.
-     */
-    private Set<MetisVertex> coarsenGraph(Graph graph) {
-        Set<MetisVertex> vertices = new HashSet<>();
-        for (Vertex vertex : graph.getVertices().values()) {
-            List<Vertex> containingVertices = new ArrayList<>();
-            containingVertices.add(vertex);
-            vertices.add(new MetisVertex(containingVertices, vertex.getValue()));
-        }
-        while (vertices.size() > 100) {
-            MetisVertex[] sortedVertices = sortVertices(vertices);
-            List<MetisVertex> matchedVertices = new ArrayList<>();
-            for (MetisVertex sortedVertex : sortedVertices) {
-                if (!matchedVertices.contains(sortedVertex)) {
-                    double maxWeight = -1;
-                    MetisVertex maxVertex = null;
-                    for (Map.Entry<MetisVertex, Double> neighbour : sortedVertex.getNeighbourVertices(vertices).entrySet()) {
-                        if (!matchedVertices.contains(neighbour.getKey())) {
-                            if (neighbour.getValue() >= maxWeight) {
-                                maxWeight = neighbour.getValue();
-                                maxVertex = neighbour.getKey();
-                            }
-
-                        }
-                    }
-                    if (maxVertex != null) {
-                        matchedVertices.add(maxVertex);
-                        matchedVertices.add(sortedVertex);
-                        reduceGraph(vertices, sortedVertex, maxVertex, maxWeight);
-
-                    }
-                }
-                if (vertices.size() <= 100) {
-                    break;
-                }
-            }
-        }
-        return vertices;
+    @Override
+    public int[] bisect(CompactGraph graph, double fraction, long seed) {
+        return bisect(MetisGraph.fromCompactGraph(graph), fraction, new Random(seed));
     }
 
     /**
-     * Sorts vertices by their degree.
-     * @param vertices all graph vertices.
-     * @return sorted array of vertices.
+     * Partitions graph directly into all parts. Graph is coarsened once, the coarsest graph
+     * is partitioned by recursive bisection and the partition is refined on each level.
+     * @param graph     partitioned graph.
+     * @return part of each vertex.
      */
-    private MetisVertex[] sortVertices(Set<MetisVertex> vertices) {
-        MetisVertex[] sortedVertices = vertices.toArray(new MetisVertex[0]);
-        Map<MetisVertex, Integer> vertexDegree = new HashMap<>();
-        for (MetisVertex vertex : vertices) {
-            vertexDegree.put(vertex, vertex.getVertexDegree());
+    private int[] partitionKWay(MetisGraph graph) {
+        int partsCount = getPartsCount();
+        List<MetisGraph> levels = coarsenGraph(graph, Math.max(COARSEN_TO, COARSEN_TO_PER_PART * partsCount), random);
+        MetisGraph coarsest = levels.get(levels.size() - 1);
+        int[] where = new int[coarsest.n];
+        int[] vertices = new int[coarsest.n];
+        for (int v = 0; v < coarsest.n; v++) {
+            vertices[v] = v;
         }
-        quickSort(sortedVertices, vertexDegree);
-        return sortedVertices;
-    }
-
-    /**
-     * QuickSort using preprocessed degree of each vertex.
-     * @param sortedVertices array to be sorted.
-     * @param vertexDegree   degree of each vertex.
-     */
-    private void quickSort(MetisVertex[] sortedVertices, Map<MetisVertex, Integer> vertexDegree) {
-        int begin = 0;
-        int end = sortedVertices.length - 1;
-        int[] stack = new int[end - begin + 1];
-        int top = -1;
-
-        stack[++top] = begin;
-        stack[++top] = end;
-        while (top >= 0) {
-            end = stack[top--];
-            begin = stack[top--];
-            int p = partition(sortedVertices, begin, end, vertexDegree);
-            if (p - 1 > begin) {
-                stack[++top] = begin;
-                stack[++top] = p - 1;
-            }
-            if (p + 1 < end) {
-                stack[++top] = p + 1;
-                stack[++top] = end;
-            }
+        partitionRecursively(coarsest, vertices, partsCount, 0, where);
+        new KWayRefiner(coarsest, partsCount, imbalance).refine(where);
+        for (int level = levels.size() - 2; level >= 0; level--) {
+            MetisGraph finer = levels.get(level);
+            where = projectPartition(finer, where);
+            new KWayRefiner(finer, partsCount, imbalance).refine(where);
         }
+        return where;
     }
 
     /**
-     * Method used for partition in quick sort.
-     * @param sortedVertices    Array of sorted vertices.
-     * @param begin             Number of index to begin.
-     * @param end               Number of index to end.
-     * @param vertexDegree      Stores number of edges for each vertex.
-     * @return index to continue.
+     * Partitions graph into given number of parts by recursive bisection. When number of parts
+     * is odd, sides get weight proportional to number of their parts.
+     * @param graph         partitioned graph.
+     * @param vertices      vertex of the top graph for each vertex of partitioned graph.
+     * @param partsCount    number of parts.
+     * @param firstPart     number of the first part.
+     * @param where         part of each vertex of the top graph, it is filled.
      */
-    private int partition(MetisVertex[] sortedVertices, int begin, int end, Map<MetisVertex, Integer> vertexDegree) {
-        MetisVertex pivot = sortedVertices[end];
-        int i = (begin - 1);
-
-        for (int j = begin; j < end; j++) {
-            if (vertexDegree.get(sortedVertices[j]) <= vertexDegree.get(pivot)) {
-                i++;
-
-                MetisVertex swapTemp = sortedVertices[i];
-                sortedVertices[i] = sortedVertices[j];
-                sortedVertices[j] = swapTemp;
-            }
-        }
-
-        MetisVertex swapTemp = sortedVertices[i + 1];
-        sortedVertices[i + 1] = sortedVertices[end];
-        sortedVertices[end] = swapTemp;
-
-        return i + 1;
-    }
-
-    /**
-     * Reduces graph by creating one joined vertex from two vertices.
-     * @param vertices     vertices of creating graph.
-     * @param v            vertex.
-     * @param maxVertex    matched vertex.
-     * @param weight       weight of the edges between joined vertices.
-     */
-    private void reduceGraph(Set<MetisVertex> vertices, MetisVertex v,
-                             MetisVertex maxVertex, double weight) {
-        List<Vertex> containingVertices = new ArrayList<>();
-        containingVertices.addAll(v.getContainingVertices());
-        containingVertices.addAll(maxVertex.getContainingVertices());
-        weight += v.getWeight() + maxVertex.getWeight();
-        vertices.remove(v);
-        vertices.remove(maxVertex);
-        vertices.add(new MetisVertex(containingVertices, weight));
-    }
-
-    /**
-     * Partition the given graph in half.
-     * @param metisVertices coarsen graph.
-     * @return partition of graph.
-     */
-    private List<Set<MetisVertex>> partitionGraph(Set<MetisVertex> metisVertices) {
-        List<Set<MetisVertex>> graphComponents = new ArrayList<>();
-        double totalVWeight = countTotalVWeight(metisVertices);
-        double halfTotalVWeight = totalVWeight / 2;
-        double quarterTotalVWeight = totalVWeight / 4;
-        int currentScore = Integer.MAX_VALUE;
-        Set<MetisVertex> bestPart = new HashSet<>();
-        MetisVertex[] vertices = metisVertices.toArray(new MetisVertex[0]);
-        for (int i = 0; i < 4; i++) {
-            boolean hasNeighbours = false;
-            MetisVertex vertex = null;
-            while (!hasNeighbours) {
-                int index = new Random(System.nanoTime()).nextInt(metisVertices.size());
-                vertex = vertices[index];
-                if (vertex.getAllStartingEdges().size() > 0) {
-                    hasNeighbours = true;
-                }
-                if (vertex.getAllEndingEdges().size() > 0) {
-                    hasNeighbours = true;
-                }
-            }
-            double verticesWeight = vertex.getWeight();
-            for (Edge startingEdge : vertex.getAllStartingEdges()) {
-                verticesWeight += startingEdge.getWeight()/2;
-            }
-            for (Edge endingEdge : vertex.getAllEndingEdges()) {
-                verticesWeight += endingEdge.getWeight()/2;
-            }
-            Set<MetisVertex> part = new HashSet<>();
-            part.add(vertex);
-            List<MetisVertex> vList = new ArrayList<>();
-            while (verticesWeight < halfTotalVWeight) {
-                addNeighbours(part, vList, vertex, metisVertices);
-                boolean added = false;
-                if (vList.size() == 0) {
-                    break;
-                }
-                for (int j = 0; j < vList.size(); j++) {
-                    vertex = vList.get(j);
-                    double tempVerticesWeight = verticesWeight +  vertex.getWeight();
-                    for (Edge startingEdge : vertex.getAllStartingEdges()) {
-                        tempVerticesWeight += startingEdge.getWeight() / 2;
-                    }
-                    for (Edge endingEdge : vertex.getAllEndingEdges()) {
-                        tempVerticesWeight += endingEdge.getWeight() / 2;
-                    }
-                    if (tempVerticesWeight < halfTotalVWeight) {
-                        verticesWeight = tempVerticesWeight;
-                        part.add(vertex);
-                        vList.remove(j);
-                        added = true;
-                        break;
-                    }
-                }
-                if (!added) {
-                    break;
-                }
-            }
-            if (verticesWeight > quarterTotalVWeight) {
-                addNeighbours(part, vList, vertex, metisVertices);
-                int score = adjustCutVertices(part, vList);
-                if (score < currentScore) {
-                    currentScore = score;
-                    bestPart = new HashSet<>(part);
-                }
+    private void partitionRecursively(MetisGraph graph, int[] vertices, int partsCount, int firstPart, int[] where) {
+        if (partsCount == 1) {
+            for (int v : vertices) {
+                where[v] = firstPart;
             }
+            return;
         }
-        Set<MetisVertex> vertices1 = new HashSet<>();
-        Set<MetisVertex> vertices2 = new HashSet<>();
-        for (MetisVertex v: metisVertices) {
-            if(bestPart.contains(v)){
-                vertices1.add(v);
-            }
-            else{
-                vertices2.add(v);
+        int firstPartsCount = partsCount / 2;
+        int[] sides = bisect(graph, (double) firstPartsCount / partsCount, random);
+        for (int side = 0; side < 2; side++) {
+            int[] sideVertices = getSideVertices(sides, side);
+            int[] topVertices = new int[sideVertices.length];
+            for (int i = 0; i < sideVertices.length; i++) {
+                topVertices[i] = vertices[sideVertices[i]];
+            }
+            if (side == 0) {
+                partitionRecursively(graph.subgraph(sideVertices), topVertices, firstPartsCount, firstPart, where);
+            } else {
+                partitionRecursively(graph.subgraph(sideVertices), topVertices, partsCount - firstPartsCount,
+                        firstPart + firstPartsCount, where);
             }
         }
-        graphComponents.add(vertices1);
-        graphComponents.add(vertices2);
-        return graphComponents;
     }
 
     /**
-     * Adjust number of cut edge.
-     * @param part      Checking part.
-     * @param vList     List with checked vertices.
-     * @return  number of cut edges.
+     * Bisects graph by multilevel scheme.
+     * @param graph     graph to be bisected.
+     * @param fraction  target fraction of graph weight on side 0.
+     * @param random    random generator.
+     * @return side (0 or 1) of each vertex.
      */
-    private int adjustCutVertices(Set<MetisVertex> part, List<MetisVertex> vList) {
-        int cutEdges = 0;
-        for(MetisVertex vertex: vList) {
-            for (Edge edge: vertex.getAllStartingEdges()) {
-                for (MetisVertex metisVertex : part) {
-                    if (metisVertex.getContainingVertices().contains(edge.getEndpoint())) {
-                        cutEdges++;
-                        break;
-                    }
-                }
-            }
-            for (Edge edge: vertex.getAllEndingEdges()) {
-                for (MetisVertex metisVertex : part) {
-                    if (metisVertex.getContainingVertices().contains(edge.getStartpoint())) {
-                        cutEdges++;
-                        break;
-                    }
-                }
-            }
+    private int[] bisect(MetisGraph graph, double fraction, Random random) {
+        List<MetisGraph> levels = coarsenGraph(graph, COARSEN_TO, random);
+        int[] where = partitionGraph(levels.get(levels.size() - 1), fraction, random);
+        for (int level = levels.size() - 2; level >= 0; level--) {
+            MetisGraph finer = levels.get(level);
+            where = projectPartition(finer, where);
+            refinePartition(finer, where, fraction);
         }
-        return cutEdges;
+        return where;
     }
 
     /**
-     * Sorts vertices and their points on the line by insertion sort.
-     * @param vertexOrder   list of sorted vertices.
-     * @param v             current vertex.
-     * @param metisVertices current half of the graph.
+     * Coarsens graph by Heavy Edge Matching into hierarchy of coarser graphs.
+     * @param graph         coarsening graph.
+     * @param coarsenTo     number of vertices of the coarsest graph.
+     * @param random        random generator.
+     * @return levels of hierarchy, the first is given graph and the last is the coarsest graph.
      */
-    private void insertionSort(List<MetisVertex> vertexOrder, MetisVertex v, Set<MetisVertex> part, Set<MetisVertex> metisVertices) {
-        int edgeCut = getVertexEdgeCut(v, part, metisVertices);
-        if(vertexOrder.size() == 0){
-            vertexOrder.add(v);
-            return;
-        }
-        if(vertexOrder.size() == 1){
-            if(getVertexEdgeCut(vertexOrder.get(0), part, metisVertices) < edgeCut){
-                vertexOrder.add(v);
-            } else{
-                vertexOrder.add(0, v);
-            }
-            return;
-        }
-        for(int i = vertexOrder.size()-1; i > -1; i--){
-            if(getVertexEdgeCut(vertexOrder.get(i), part, metisVertices) <= edgeCut){
-                vertexOrder.add(i+1, v);
-                return;
-            }
+    private List<MetisGraph> coarsenGraph(MetisGraph graph, int coarsenTo, Random random) {
+        List<MetisGraph> levels = new ArrayList<>();
+        levels.add(graph);
+        double maxVertexWeight = 1.5 * graph.totalWeight / coarsenTo;
+        MetisGraph current = graph;
+        while (current.n > coarsenTo) {
+            int[] match = current.heavyEdgeMatching(random, maxVertexWeight);
+            MetisGraph coarser = current.contract(match);
+            levels.add(coarser);
+            if (coarser.n > MIN_REDUCTION * current.n) {
+                break;
+            }
+            current = coarser;
         }
+        return levels;
     }
 
     /**
-     * Gets number of cut edges connected to vertex v.
-     * @param v             vertex.
-     * @param part          part where vertex v belongs.
-     * @param metisVertices current half of the graph.
-     * @return number of cut edges connected to vertex v.
+     * Bisects the coarsest graph by growing region from random vertices.
+     * The first attempt runs alone, the other attempts have their own seeds and run in parallel.
+     * Attempt is aborted when its cut is much worse than cut of the first attempt, so the result
+     * does not depend on order of finishing. The attempt with the lowest cut is kept,
+     * ties go to the lowest attempt number.
+     * @param graph     the coarsest graph.
+     * @param fraction  target fraction of graph weight on side 0.
+     * @param random    random generator.
+     * @return side (0 or 1) of each vertex.
      */
-    private int getVertexEdgeCut(MetisVertex v, Set<MetisVertex> part, Set<MetisVertex> metisVertices){
-        int edgeCut = 0;
-        for (MetisVertex vertex: v.getNeighbourVertices(metisVertices).keySet()) {
-            if(!part.contains(vertex)){
-                edgeCut++;
-            }
+    private int[] partitionGraph(MetisGraph graph, double fraction, Random random) {
+        int[][] results = new int[initialAttempts][];
+        double[] cuts = new double[initialAttempts];
+        long[] seeds = new long[initialAttempts];
+        for (int i = 0; i < initialAttempts; i++) {
+            seeds[i] = random.nextLong();
         }
-        return edgeCut;
-    }
-
-    /**
-     * Gets neighbours of the part.
-     * @param part          the part.
-     * @param vList         list of vertices.
-     * @param metisVertices current half of the graph.
-     */
-    private void addNeighbours(Set<MetisVertex> part, List<MetisVertex> vList, MetisVertex vertex, Set<MetisVertex> metisVertices){
-        for (MetisVertex metisVertex: vertex.getNeighbourVertices(metisVertices).keySet()) {
-            if(!part.contains(metisVertex)) {
-                if( !vList.contains(metisVertex)) {
-                    insertionSort(vList, metisVertex, part, metisVertices);
-                }
+        runAttempt(graph, fraction, new Random(seeds[0]), 0, results, cuts, Double.MAX_VALUE);
+        double bound = ABORT_RATIO * cuts[0];
+        List<ForkJoinTask<?>> attempts = new ArrayList<>();
+        for (int i = 1; i < initialAttempts; i++) {
+            int attempt = i;
+            attempts.add(ForkJoinTask.adapt(() -> runAttempt(graph, fraction, new Random(seeds[attempt]), attempt,
+                    results, cuts, bound)));
+        }
+        ForkJoinTask.invokeAll(attempts);
+        int best = 0;
+        for (int i = 1; i < initialAttempts; i++) {
+            if (results[i] != null && cuts[i] < cuts[best]) {
+                best = i;
             }
         }
+        return results[best];
     }
 
     /**
-     * Counts total weight of the graph.
-     * @param metisVertices     vertices of the coarse graph.
-     * @return  total weight of the graph.
+     * Runs one attempt of bisection of the coarsest graph.
+     * @param graph     the coarsest graph.
+     * @param fraction  target fraction of graph weight on side 0.
+     * @param random    random generator of the attempt.
+     * @param attempt   number of the attempt.
+     * @param results   bisection of each attempt, null for aborted attempts.
+     * @param cuts      cut weight of each attempt.
+     * @param bound     the highest acceptable cut weight.
      */
-    private double countTotalVWeight(Set<MetisVertex> metisVertices){
-        double total = 0.0;
-        for (MetisVertex vertex: metisVertices) {
-            total += vertex.getWeight();
-            for (Edge startingEdge : vertex.getAllStartingEdges()) {
-                total += startingEdge.getWeight()/2;
-            }
-            for (Edge endingEdge : vertex.getAllEndingEdges()) {
-                total += endingEdge.getWeight()/2;
-            }
+    private void runAttempt(MetisGraph graph, double fraction, Random random, int attempt,
+                            int[][] results, double[] cuts, double bound) {
+        int[] where = growRegion(graph, fraction, random);
+        double[] targetWeights = {fraction * graph.totalWeight, (1 - fraction) * graph.totalWeight};
+        FMRefiner refiner = new FMRefiner(graph, targetWeights, imbalance);
+        if (refiner.refine(where, () -> bound)) {
+            results[attempt] = where;
+            cuts[attempt] = refiner.getCut();
         }
-        return total;
     }
 
     /**
-     * Uncoarsens graph.
-     * @param parts     partition of coarsen graph.
-     * @return  partition of original graph.
+     * Grows side 0 by breadth-first search from random vertex until it has target weight.
+     * When search runs out of vertices, it continues from another random vertex.
+     * @param graph     bisected graph.
+     * @param fraction  target fraction of graph weight on side 0.
+     * @param random    random generator.
+     * @return side (0 or 1) of each vertex.
      */
-    private List<Graph> uncoarsenGraph(List<Set<MetisVertex>> parts){
-        List<Graph> verticesParts = new ArrayList<>();
-        Map<Vertex, Integer> verticesPartsDynamic = new HashMap<>();
-        int length = 0;
-        int p = 0;
-        for(Set<MetisVertex> part: parts){
-            Map<Integer, Vertex> vertices = new HashMap<>();
-            for(MetisVertex vertex: part){
-                for(Vertex v: vertex.getContainingVertices()){
-                    vertices.put(v.getId(), v);
-                    verticesPartsDynamic.put(v, p);
-                }
-            }
-            length += vertices.size();
-            verticesParts.add(new Graph(vertices, null));
-            p++;
-        }
-        double gMax;
-        do {
-            gMax = 0;
-            List<Double> gv = new ArrayList<>();
-            List<Vertex> av = new ArrayList<>();
-            List<Vertex> bv = new ArrayList<>();
-            for(int n = 0; n < length/2; n++) {
-                List<Map<Vertex, Double>> list = new ArrayList<>(computeBorderDValues(verticesPartsDynamic).values());
-                double max = 0;
-                Vertex a = null;
-                Vertex b = null;
-                if (list.size() == 0) {
+    private int[] growRegion(MetisGraph graph, double fraction, Random random) {
+        int[] where = new int[graph.n];
+        Arrays.fill(where, 1);
+        boolean[] visited = new boolean[graph.n];
+        int[] queue = new int[graph.n];
+        int head = 0;
+        int tail = 0;
+        double target = fraction * graph.totalWeight;
+        double weight = 0;
+        while (weight < target) {
+            if (head == tail) {
+                int seed = getRandomUnvisited(visited, random);
+                if (seed == -1) {
                     break;
                 }
-                for (Map.Entry<Vertex, Double> i : list.get(0).entrySet()) {
-                    for (Map.Entry<Vertex, Double> j : list.get(1).entrySet()) {
-                        if (verticesNotExchanged(i, j, av, bv)){
-                            double g = i.getValue() + j.getValue() - 2 * getCValue(i.getKey(), j.getKey());
-                            if(g >= max){
-                                max = g;
-                                a = i.getKey();
-                                b = j.getKey();
-                            }
-                        }
-                    }
-                }
-                if (a != null) {
-                    gv.add(max);
-                    av.add(a);
-                    bv.add(b);
-                    int[] abValue = getAandBPartNumbers(a, b, verticesParts);
-                    verticesPartsDynamic.put(a, abValue[1]);
-                    verticesPartsDynamic.put(b, abValue[0]);
-                }
-            }
-            int k = 0;
-            double sum = 0;
-            for(int l = 0; l < gv.size(); l++){
-                sum += gv.get(l);
-                if(sum > gMax){
-                    gMax = sum;
-                    k = l;
-                }
-            }
-            if (gMax > 0) {
-                for(int i = 0; i < k; i++){
-                    Vertex a = av.get(i);
-                    Vertex b = bv.get(i);
-                    int[] abValue = getAandBPartNumbers(a, b, verticesParts);
-                    verticesParts.get(abValue[1]).getVertices().put(a.getId(), a);
-                    verticesParts.get(abValue[0]).getVertices().put(b.getId(), b);
+                visited[seed] = true;
+                queue[tail++] = seed;
+            }
+            int v = queue[head++];
+            if (weight + graph.vwgt[v] - target > target - weight) {
+                break;
+            }
+            where[v] = 0;
+            weight += graph.vwgt[v];
+            for (int j = graph.xadj[v]; j < graph.xadj[v + 1]; j++) {
+                int u = graph.adjncy[j];
+                if (!visited[u]) {
+                    visited[u] = true;
+                    queue[tail++] = u;
                 }
             }
-        }while (gMax > 0);
-
-        return verticesParts;
-    }
-
-    /**
-     * Checks if vertices were not exchanged yet.
-     * @param a     Vertex A.
-     * @param b     Vertex B.
-     * @param av    List of exchanged vertices from one part.
-     * @param bv    List of exchanged vertices from another part.
-     * @return  true if not exchanged.
-     */
-    private boolean verticesNotExchanged(Map.Entry<Vertex, Double> a, Map.Entry<Vertex, Double> b,
-                                                   List<Vertex> av, List<Vertex> bv) {
-        int index = -1;
-        for (int i = 0; i < av.size(); i++) {
-            if ((av.get(i) == a.getKey()) || (av.get(i) == b.getKey())) {
-                index = i;
-            }
         }
-        return (index == -1) || ((bv.get(index) != a.getKey()) && (bv.get(index) != b.getKey()));
+        return where;
     }
 
     /**
-     * Gets part numbers of given vertices A abd B.
-     * @param a                 Vertex A.
-     * @param b                 Vertex B.
-     * @param verticesParts     Divided vertices into parts.
-     * @return part number of A and B.
+     * Gets random vertex that was not visited yet.
+     * @param visited   visited flag of each vertex.
+     * @param random    random generator.
+     * @return random unvisited vertex or -1 if all vertices were visited.
      */
-    private int[] getAandBPartNumbers(Vertex a, Vertex b, List<Graph> verticesParts) {
-        int[] abValue = {-1, -1};
-        int i = 0;
-        for(Graph graph: verticesParts){
-            if(graph.getVertices().containsKey(a.getId())){
-                abValue[0] = i;
-            }
-            if(graph.getVertices().containsKey(b.getId())){
-                abValue[1] = i;
+    private int getRandomUnvisited(boolean[] visited, Random random) {
+        int start = random.nextInt(visited.length);
+        for (int i = 0; i < visited.length; i++) {
+            int v = (start + i) % visited.length;
+            if (!visited[v]) {
+                return v;
             }
-            i++;
         }
-        return abValue;
+        return -1;
     }
 
     /**
-     * Computes border difference values for each part.
-     * @param verticesParts    Divided vertices into parts.
-     * @return border difference values for each part.
+     * Projects partition of coarser graph to finer graph.
+     * @param finer         finer graph with cmap to coarser graph.
+     * @param coarseWhere   side of each vertex of coarser graph.
+     * @return side of each vertex of finer graph.
      */
-    private Map<Integer, Map<Vertex, Double>> computeBorderDValues(Map<Vertex, Integer> verticesParts){
-        Map<Integer, Map<Vertex, Double>> borderDValues = new HashMap<>();
-        for(Map.Entry<Vertex, Integer> vertexPart: verticesParts.entrySet()){
-            Vertex vertex = vertexPart.getKey();
-            int partNumber = vertexPart.getValue();
-            double[] edgesWeights = {0.0, 0.0};
-            setEdgesWeights(edgesWeights, vertexPart, verticesParts);
-            if(edgesWeights[0] > 0 ){
-                borderDValues.computeIfAbsent(partNumber, value -> new HashMap<>());
-                double dValue = edgesWeights[0] - edgesWeights[1];
-                borderDValues.get(partNumber).put(vertex, dValue);
-            }
+    private int[] projectPartition(MetisGraph finer, int[] coarseWhere) {
+        int[] where = new int[finer.n];
+        for (int v = 0; v < finer.n; v++) {
+            where[v] = coarseWhere[finer.cmap[v]];
         }
-        return borderDValues;
+        return where;
     }
 
     /**
-     * Sets total weights of inner edges and connecting edges of two parts going out or in given vertex.
-     * @param edgesWeights      array where first value is total weight of connecting edges and second is
-     *                          total weight of inner edges.
-     * @param vertexPart            The vertex.
-     * @param verticesParts     Map where key is vertex and value is number of its part.
+     * Refines bisection of graph.
+     * @param graph     bisected graph.
+     * @param where     side of each vertex, it is updated.
+     * @param fraction  target fraction of graph weight on side 0.
      */
-    private void setEdgesWeights(double[] edgesWeights, Map.Entry<Vertex, Integer> vertexPart, Map<Vertex, Integer> verticesParts){
-        Vertex vertex = vertexPart.getKey();
-        int partNumber = vertexPart.getValue();
-        for(Edge edge: vertex.getStartingEdges()){
-            if((verticesParts.get(edge.getEndpoint()) != null) && (verticesParts.get(edge.getEndpoint())!= partNumber)){
-                edgesWeights[0] += edge.getWeight();
-            }
-            else{
-                edgesWeights[1] += edge.getWeight();
-            }
-        }
-        for(Edge edge: vertex.getEndingEdges()){
-            if((verticesParts.get(edge.getStartpoint()) != null) && (verticesParts.get(edge.getStartpoint()) != partNumber)){
-                edgesWeights[0] += edge.getWeight();
-            }
-            else{
-                edgesWeights[1] += edge.getWeight();
-            }
-        }
+    private void refinePartition(MetisGraph graph, int[] where, double fraction) {
+        double[] targetWeights = {fraction * graph.totalWeight, (1 - fraction) * graph.totalWeight};
+        new FMRefiner(graph, targetWeights, imbalance).refine(where);
     }
 
     /**
-     * Gets C value. It is sum of weight of all edges between vertex v1 and vertex v2.
-     * @param v1    vertex v1.
-     * @param v2    vertex v2.
-     * @return sum of weight of all edges between vertex v1 and vertex v2.
+     * Gets vertices on given side of bisection.
+     * @param where     side of each vertex.
+     * @param side      side.
+     * @return vertices on the side.
      */
-    private double getCValue(Vertex v1, Vertex v2){
-        double edgesWeight = 0;
-        for(Edge edge: v1.getStartingEdges()){
-            if(edge.getEndpoint().equals(v2)){
-                edgesWeight += edge.getWeight();
+    private int[] getSideVertices(int[] where, int side) {
+        int count = 0;
+        for (int s : where) {
+            if (s == side) {
+                count++;
             }
         }
-        for(Edge edge: v2.getStartingEdges()){
-            if(edge.getEndpoint().equals(v1)){
-                edgesWeight += edge.getWeight();
+        int[] vertices = new int[count];
+        int i = 0;
+        for (int v = 0; v < where.length; v++) {
+            if (where[v] == side) {
+                vertices[i++] = v;
             }
         }
-        return edgesWeight;
+        return vertices;
     }
 
     @Override
@@ -0,0 +1,282 @@
+package alg.metisPart;
+
+import bp.roadnetworkpartitioning.CompactGraph;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Implementation of graph on one level of METIS algorithm.
+ * Graph is undirected and stored in compressed sparse row form, edges in both directions
+ * between two vertices are joined into one edge with summed weight.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class MetisGraph {
+    /** Number of vertices. */
+    final int n;
+    /** Offsets of adjacency, neighbours of vertex v are adjncy[xadj[v]] .. adjncy[xadj[v + 1] - 1]. */
+    final int[] xadj;
+    /** Neighbours of vertices. */
+    final int[] adjncy;
+    /** Weights of edges to neighbours. */
+    final double[] adjwgt;
+    /** Weights of vertices. */
+    final double[] vwgt;
+    /** Total weight of vertices. */
+    final double totalWeight;
+    /** Mapping of vertices to vertices of next coarser graph, set by contraction. */
+    int[] cmap = null;
+
+    /**
+     * Constructor of graph from prepared arrays.
+     * @param n         number of vertices.
+     * @param xadj      offsets of adjacency.
+     * @param adjncy    neighbours of vertices.
+     * @param adjwgt    weights of edges to neighbours.
+     * @param vwgt      weights of vertices.
+     */
+    MetisGraph(int n, int[] xadj, int[] adjncy, double[] adjwgt, double[] vwgt) {
+        this.n = n;
+        this.xadj = xadj;
+        this.adjncy = adjncy;
+        this.adjwgt = adjwgt;
+        this.vwgt = vwgt;
+        double total = 0;
+        for (int v = 0; v < n; v++) {
+            total += vwgt[v];
+        }
+        this.totalWeight = total;
+    }
+
+    /**
+     * Creates undirected graph from compact graph.
+     * @param compactGraph  compact form of graph.
+     * @return undirected graph with one vertex for each vertex of compact graph.
+     */
+    static MetisGraph fromCompactGraph(CompactGraph compactGraph) {
+        int n = compactGraph.getVertexCount();
+        int[] where = new int[n];
+        Arrays.fill(where, -1);
+        int[] xadj = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int degree = 0;
+            for (int arc = compactGraph.getOutStart(v); arc < compactGraph.getOutEnd(v); arc++) {
+                int u = compactGraph.getOutTarget(arc);
+                if (u != v && where[u] != v) {
+                    where[u] = v;
+                    degree++;
+                }
+            }
+            for (int arc = compactGraph.getInStart(v); arc < compactGraph.getInEnd(v); arc++) {
+                int u = compactGraph.getInSource(arc);
+                if (u != v && where[u] != v) {
+                    where[u] = v;
+                    degree++;
+                }
+            }
+            xadj[v + 1] = xadj[v] + degree;
+        }
+        Arrays.fill(where, -1);
+        int[] adjncy = new int[xadj[n]];
+        double[] adjwgt = new double[xadj[n]];
+        double[] vwgt = new double[n];
+        for (int v = 0; v < n; v++) {
+            vwgt[v] = compactGraph.getVertexWeight(v);
+            int k = xadj[v];
+            for (int arc = compactGraph.getOutStart(v); arc < compactGraph.getOutEnd(v); arc++) {
+                k = addNeighbour(compactGraph.getOutTarget(arc), compactGraph.getOutWeight(arc), v, k, where, adjncy, adjwgt);
+            }
+            for (int arc = compactGraph.getInStart(v); arc < compactGraph.getInEnd(v); arc++) {
+                k = addNeighbour(compactGraph.getInSource(arc), compactGraph.getInWeight(arc), v, k, where, adjncy, adjwgt);
+            }
+            for (int j = xadj[v]; j < k; j++) {
+                where[adjncy[j]] = -1;
+            }
+        }
+        return new MetisGraph(n, xadj, adjncy, adjwgt, vwgt);
+    }
+
+    /**
+     * Adds neighbour to adjacency of vertex v or increases weight of existing edge.
+     * @param u         neighbour.
+     * @param weight    weight of edge.
+     * @param v         vertex.
+     * @param k         next free position in adjacency.
+     * @param where     position of each neighbour already added to adjacency of v, -1 otherwise.
+     * @param adjncy    neighbours of vertices.
+     * @param adjwgt    weights of edges to neighbours.
+     * @return next free position in adjacency.
+     */
+    private static int addNeighbour(int u, double weight, int v, int k, int[] where, int[] adjncy, double[] adjwgt) {
+        if (u == v) {
+            return k;
+        }
+        if (where[u] == -1) {
+            where[u] = k;
+            adjncy[k] = u;
+            adjwgt[k] = weight;
+            return k + 1;
+        }
+        adjwgt[where[u]] += weight;
+        return k;
+    }
+
+    /**
+     * Creates subgraph induced by given vertices.
+     * @param vertices  vertices of this graph.
+     * @return induced subgraph, vertex i of subgraph is vertices[i].
+     */
+    MetisGraph subgraph(int[] vertices) {
+        int[] local = new int[n];
+        Arrays.fill(local, -1);
+        for (int i = 0; i < vertices.length; i++) {
+            local[vertices[i]] = i;
+        }
+        int[] subXadj = new int[vertices.length + 1];
+        for (int i = 0; i < vertices.length; i++) {
+            int degree = 0;
+            for (int j = xadj[vertices[i]]; j < xadj[vertices[i] + 1]; j++) {
+                if (local[adjncy[j]] >= 0) {
+                    degree++;
+                }
+            }
+            subXadj[i + 1] = subXadj[i] + degree;
+        }
+        int[] subAdjncy = new int[subXadj[vertices.length]];
+        double[] subAdjwgt = new double[subXadj[vertices.length]];
+        double[] subVwgt = new double[vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            int v = vertices[i];
+            subVwgt[i] = vwgt[v];
+            int k = subXadj[i];
+            for (int j = xadj[v]; j < xadj[v + 1]; j++) {
+                if (local[adjncy[j]] >= 0) {
+                    subAdjncy[k] = local[adjncy[j]];
+                    subAdjwgt[k] = adjwgt[j];
+                    k++;
+                }
+            }
+        }
+        return new MetisGraph(vertices.length, subXadj, subAdjncy, subAdjwgt, subVwgt);
+    }
+
+    /**
+     * Finds Heavy Edge Matching. Vertices are visited from the lowest degree (random order
+     * for same degree) and each unmatched vertex is matched with unmatched neighbour
+     * connected by the heaviest edge.
+     * @param random            random generator.
+     * @param maxVertexWeight   maximal weight of joined vertex.
+     * @return matched vertex of each vertex (vertex itself if it is not matched).
+     */
+    int[] heavyEdgeMatching(Random random, double maxVertexWeight) {
+        int[] permutation = new int[n];
+        for (int v = 0; v < n; v++) {
+            permutation[v] = v;
+        }
+        for (int v = n - 1; v > 0; v--) {
+            int j = random.nextInt(v + 1);
+            int temp = permutation[v];
+            permutation[v] = permutation[j];
+            permutation[j] = temp;
+        }
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) {
+            maxDegree = Math.max(maxDegree, xadj[v + 1] - xadj[v]);
+        }
+        int[] degreeOffsets = new int[maxDegree + 2];
+        for (int v = 0; v < n; v++) {
+            degreeOffsets[xadj[v + 1] - xadj[v] + 1]++;
+        }
+        for (int d = 0; d <= maxDegree; d++) {
+            degreeOffsets[d + 1] += degreeOffsets[d];
+        }
+        int[] order = new int[n];
+        for (int v : permutation) {
+            order[degreeOffsets[xadj[v + 1] - xadj[v]]++] = v;
+        }
+
+        int[] match = new int[n];
+        Arrays.fill(match, -1);
+        for (int u : order) {
+            if (match[u] != -1) {
+                continue;
+            }
+            int best = -1;
+            double bestWeight = -1;
+            for (int j = xadj[u]; j < xadj[u + 1]; j++) {
+                int v = adjncy[j];
+                if (match[v] == -1 && adjwgt[j] > bestWeight && vwgt[u] + vwgt[v] <= maxVertexWeight) {
+                    best = v;
+                    bestWeight = adjwgt[j];
+                }
+            }
+            if (best == -1) {
+                match[u] = u;
+            } else {
+                match[u] = best;
+                match[best] = u;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Contracts matched vertices into coarser graph and sets cmap of this graph.
+     * @param match     matched vertex of each vertex.
+     * @return coarser graph.
+     */
+    MetisGraph contract(int[] match) {
+        cmap = new int[n];
+        int cn = 0;
+        for (int v = 0; v < n; v++) {
+            if (match[v] >= v) {
+                cmap[v] = cn;
+                cmap[match[v]] = cn;
+                cn++;
+            }
+        }
+        int[] cxadj = new int[cn + 1];
+        int[] cadjncy = new int[adjncy.length];
+        double[] cadjwgt = new double[adjncy.length];
+        double[] cvwgt = new double[cn];
+        int[] where = new int[cn];
+        Arrays.fill(where, -1);
+        int k = 0;
+        int c = 0;
+        for (int v = 0; v < n; v++) {
+            if (match[v] < v) {
+                continue;
+            }
+            cvwgt[c] = vwgt[v];
+            k = addCoarseNeighbours(v, c, k, where, cadjncy, cadjwgt);
+            if (match[v] != v) {
+                cvwgt[c] += vwgt[match[v]];
+                k = addCoarseNeighbours(match[v], c, k, where, cadjncy, cadjwgt);
+            }
+            for (int j = cxadj[c]; j < k; j++) {
+                where[cadjncy[j]] = -1;
+            }
+            cxadj[c + 1] = k;
+            c++;
+        }
+        return new MetisGraph(cn, cxadj, Arrays.copyOf(cadjncy, k), Arrays.copyOf(cadjwgt, k), cvwgt);
+    }
+
+    /**
+     * Adds neighbours of vertex v to adjacency of coarse vertex c.
+     * @param v         vertex of this graph.
+     * @param c         coarse vertex.
+     * @param k         next free position in coarse adjacency.
+     * @param where     position of each coarse neighbour already added, -1 otherwise.
+     * @param cadjncy   coarse neighbours.
+     * @param cadjwgt   weights of coarse edges.
+     * @return next free position in coarse adjacency.
+     */
+    private int addCoarseNeighbours(int v, int c, int k, int[] where, int[] cadjncy, double[] cadjwgt) {
+        for (int j = xadj[v]; j < xadj[v + 1]; j++) {
+            k = addNeighbour(cmap[adjncy[j]], adjwgt[j], c, k, where, cadjncy, cadjwgt);
+        }
+        return k;
+    }
+}
@@ -0,0 +1,107 @@
+package alg.spartsimPart;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of max-heap of frontier vertices of one growing part.
+ * Key of vertex is weight of its connection to the part. Vertex is inserted again
+ * whenever a new connection to the part appears, so the heap may hold more entries
+ * of one vertex. Entries of vertices already claimed by any part are skipped when polled,
+ * which keeps memory linear in number of edges regardless of number of parts.
+ * Entries with equal keys are polled in order of insertion, so the part grows breadth-first.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class FrontierHeap {
+    /** Keys of entries. */
+    private double[] keys = new double[16];
+    /** Vertices of entries. */
+    private int[] vertices = new int[16];
+    /** Insertion numbers of entries. */
+    private long[] orders = new long[16];
+    /** Number of inserted entries. */
+    private long insertions = 0;
+    /** Number of entries. */
+    private int size = 0;
+
+    /**
+     * Inserts vertex with given key.
+     * @param v     dense vertex index.
+     * @param key   weight of connection of vertex to the part.
+     */
+    void push(int v, double key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, 2 * size);
+            vertices = Arrays.copyOf(vertices, 2 * size);
+            orders = Arrays.copyOf(orders, 2 * size);
+        }
+        long order = insertions++;
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!isBefore(key, order, keys[parent], orders[parent])) {
+                break;
+            }
+            keys[i] = keys[parent];
+            vertices[i] = vertices[parent];
+            orders[i] = orders[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        vertices[i] = v;
+        orders[i] = order;
+    }
+
+    /**
+     * Removes unclaimed vertex with the highest key, entries of claimed vertices are dropped.
+     * @param partOf    part of each vertex, -1 for unclaimed vertices.
+     * @return dense index of unclaimed vertex with the highest key or -1 if there is none.
+     */
+    int poll(int[] partOf) {
+        while (size > 0) {
+            int v = vertices[0];
+            removeTop();
+            if (partOf[v] == -1) {
+                return v;
+            }
+        }
+        return -1;
+    }
+
+    /** Removes entry with the highest key. */
+    private void removeTop() {
+        size--;
+        double key = keys[size];
+        int v = vertices[size];
+        long order = orders[size];
+        int i = 0;
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && isBefore(keys[child + 1], orders[child + 1], keys[child], orders[child])) {
+                child++;
+            }
+            if (!isBefore(keys[child], orders[child], key, order)) {
+                break;
+            }
+            keys[i] = keys[child];
+            vertices[i] = vertices[child];
+            orders[i] = orders[child];
+            i = child;
+        }
+        keys[i] = key;
+        vertices[i] = v;
+        orders[i] = order;
+    }
+
+    /**
+     * Compares two entries.
+     * @param key1      key of the first entry.
+     * @param order1    insertion number of the first entry.
+     * @param key2      key of the second entry.
+     * @param order2    insertion number of the second entry.
+     * @return true if the first entry is polled before the second one.
+     */
+    private static boolean isBefore(double key1, long order1, double key2, long order2) {
+        return key1 > key2 || (key1 == key2 && order1 < order2);
+    }
+}
@@ -0,0 +1,327 @@
+package alg.spartsimPart;
+
+import bp.roadnetworkpartitioning.CompactGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Implementation of region growing where each part expands its frontier in its own task.
+ * Growing runs in rounds of three phases separated by joining all tasks. In the first phase
+ * each part takes a batch of vertices from its frontier and claims them by compare-and-set
+ * in shared array of claims. When more parts claim one vertex, the claim with the lowest
+ * key wins. Claim taken earlier in the batch wins as the part would get the vertex on its
+ * earlier turn in round-robin growing, claims taken at the same position are ranked
+ * in order of parts rotated by seeded hash of the vertex. So the result depends only
+ * on the seed and not on scheduling of tasks. In the second phase each part
+ * takes the vertices it won in batch order, a won vertex is kept only if it touches
+ * the part, so a part never gets an island behind a vertex it lost. Other parts never
+ * write number of the part, so the check does not depend on scheduling either.
+ * In the third phase claims of vertices left free are released and the vertices go back
+ * to frontiers of parts they touch.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class ParallelRegionGrowing {
+    /** Max. number of vertices taken by one part in one round. */
+    private static final int MAX_BATCH = 64;
+    /** Number of rounds per vertex of part that determines batch size. */
+    private static final int ROUNDS_PER_PART_VERTEX = 64;
+    /** Claim of vertex that nobody claimed. */
+    private static final int UNCLAIMED = Integer.MAX_VALUE;
+    /** Partitioned graph. */
+    private final CompactGraph graph;
+    /** Part of each vertex, -1 for free vertices. */
+    private final int[] partOf;
+    /** Number of parts. */
+    private final int partsCount;
+    /** Seed of resolving conflicting claims. */
+    private final long seed;
+    /** Number of vertices taken by one part in one round. */
+    private final int batch;
+    /** Frontier of each part. */
+    private final FrontierHeap[] frontiers;
+    /** Winning claim key of each vertex. */
+    private final AtomicIntegerArray claims;
+    /** Vertices claimed by each part in the current round. */
+    private final int[][] proposals;
+    /** Number of vertices claimed by each part in the current round. */
+    private final int[] proposalCounts;
+
+    /**
+     * Constructor of growing.
+     * @param graph         partitioned graph.
+     * @param partOf        part of each vertex, -1 for free vertices, starting vertices have their part.
+     * @param partsCount    number of parts.
+     * @param seed          seed of resolving conflicting claims.
+     */
+    public ParallelRegionGrowing(CompactGraph graph, int[] partOf, int partsCount, long seed) {
+        this.graph = graph;
+        this.partOf = partOf;
+        this.partsCount = partsCount;
+        this.seed = seed;
+        this.batch = Math.max(1, Math.min(MAX_BATCH, partOf.length / (ROUNDS_PER_PART_VERTEX * partsCount)));
+        this.frontiers = new FrontierHeap[partsCount];
+        this.claims = new AtomicIntegerArray(partOf.length);
+        this.proposals = new int[partsCount][batch];
+        this.proposalCounts = new int[partsCount];
+        for (int i = 0; i < partsCount; i++) {
+            frontiers[i] = new FrontierHeap();
+        }
+        for (int v = 0; v < partOf.length; v++) {
+            claims.set(v, UNCLAIMED);
+        }
+    }
+
+    /**
+     * Grows parts until no part can take a free vertex.
+     */
+    public void grow() {
+        for (int v = 0; v < partOf.length; v++) {
+            if (partOf[v] != -1) {
+                addNeighbours(v, partOf[v]);
+            }
+        }
+        boolean claimed = true;
+        while (claimed) {
+            runForAllParts(this::claim);
+            runForAllParts(this::assign);
+            runForAllParts(this::release);
+            claimed = false;
+            for (int count : proposalCounts) {
+                claimed |= count > 0;
+            }
+        }
+    }
+
+    /**
+     * Runs action for each part, parts are processed in parallel.
+     * @param action    action taking part number.
+     */
+    private void runForAllParts(IntConsumer action) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(partsCount);
+        for (int i = 0; i < partsCount; i++) {
+            int part = i;
+            tasks.add(ForkJoinTask.adapt(() -> action.accept(part)));
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    /**
+     * Takes batch of free vertices from frontier of part and claims them. Neighbours of claimed
+     * vertex are added to the frontier at once, so the part can take whole batch in one round,
+     * vertex is taken only if it is adjacent to the part or to a vertex claimed by the part in this round.
+     * Claim is lowered by compare-and-set, so the lowest key wins regardless of order of claims.
+     * Taken vertices do not depend on claims of other parts, lost claims count to the batch too.
+     * @param part  part number.
+     */
+    private void claim(int part) {
+        int count = 0;
+        while (count < batch) {
+            int v = frontiers[part].poll(partOf);
+            if (v == -1) {
+                break;
+            }
+            if (isProposed(part, v, count) || !isAdjacent(part, v, count)) {
+                continue;
+            }
+            proposals[part][count++] = v;
+            int key = getKey(v, part, count - 1);
+            int current = claims.get(v);
+            while (key < current && !claims.compareAndSet(v, current, key)) {
+                current = claims.get(v);
+            }
+            addNeighbours(v, part);
+        }
+        proposalCounts[part] = count;
+    }
+
+    /**
+     * Finds out whether part already took vertex in the current round.
+     * @param part      part number.
+     * @param v         dense vertex index.
+     * @param count     number of vertices taken by the part.
+     * @return true if vertex was taken.
+     */
+    private boolean isProposed(int part, int v, int count) {
+        for (int i = 0; i < count; i++) {
+            if (proposals[part][i] == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds out whether vertex has neighbour in part or neighbour taken by part in the current round.
+     * Vertices reached only through claims lost in previous rounds are not adjacent.
+     * @param part      part number.
+     * @param v         dense vertex index.
+     * @param count     number of vertices taken by the part.
+     * @return true if vertex is adjacent to the part.
+     */
+    private boolean isAdjacent(int part, int v, int count) {
+        for (int arc = graph.getOutStart(v); arc < graph.getOutEnd(v); arc++) {
+            int u = graph.getOutTarget(arc);
+            if (partOf[u] == part || isProposed(part, u, count)) {
+                return true;
+            }
+        }
+        for (int arc = graph.getInStart(v); arc < graph.getInEnd(v); arc++) {
+            int u = graph.getInSource(arc);
+            if (partOf[u] == part || isProposed(part, u, count)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Assigns vertices won by part in order of the batch. Won vertex is assigned only if it has
+     * neighbour in the part including vertices assigned earlier in the batch, others stay free.
+     * @param part  part number.
+     */
+    private void assign(int part) {
+        for (int i = 0; i < proposalCounts[part]; i++) {
+            int v = proposals[part][i];
+            if (claims.get(v) == getKey(v, part, i) && getConnectionToPart(v, part) > 0) {
+                partOf[v] = part;
+            }
+        }
+    }
+
+    /**
+     * Releases claims of vertices taken by part that stayed free and returns them to frontier
+     * of the part if they touch it, their frontier entries were consumed when they were taken.
+     * All parts write the same value to released claims and nobody reads claims in this phase.
+     * @param part  part number.
+     */
+    private void release(int part) {
+        for (int i = 0; i < proposalCounts[part]; i++) {
+            int v = proposals[part][i];
+            claims.set(v, UNCLAIMED);
+            if (partOf[v] == -1) {
+                double connection = getConnectionToPart(v, part);
+                if (connection > 0) {
+                    frontiers[part].push(v, connection);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sums weights of all edges between vertex and vertices of part.
+     * Edges of zero weight count as minimal positive connection, so any neighbour in part is found.
+     * @param v     dense vertex index.
+     * @param part  part number.
+     * @return total weight of edges, 0 if vertex has no neighbour in part.
+     */
+    private double getConnectionToPart(int v, int part) {
+        double connection = 0;
+        boolean adjacent = false;
+        for (int arc = graph.getOutStart(v); arc < graph.getOutEnd(v); arc++) {
+            if (partOf[graph.getOutTarget(arc)] == part) {
+                connection += Math.abs(graph.getOutWeight(arc));
+                adjacent = true;
+            }
+        }
+        for (int arc = graph.getInStart(v); arc < graph.getInEnd(v); arc++) {
+            if (partOf[graph.getInSource(arc)] == part) {
+                connection += Math.abs(graph.getInWeight(arc));
+                adjacent = true;
+            }
+        }
+        return adjacent ? Math.max(connection, Double.MIN_VALUE) : 0;
+    }
+
+    /**
+     * Adds neighbours of vertex that do not belong to the part to frontier of the part.
+     * Key of neighbour is weight of all edges between the vertex and the neighbour.
+     * Neighbours claimed by other parts are added too, frontier skips them when polled,
+     * so the frontier does not depend on progress of other parts.
+     * @param v     dense index of vertex of the part or claimed by the part.
+     * @param part  part number.
+     */
+    private void addNeighbours(int v, int part) {
+        int outStart = graph.getOutStart(v);
+        int outEnd = graph.getOutEnd(v);
+        int inStart = graph.getInStart(v);
+        int inEnd = graph.getInEnd(v);
+        for (int arc = outStart; arc < outEnd; arc++) {
+            int u = graph.getOutTarget(arc);
+            if (partOf[u] != part && isFirstArcTo(u, outStart, arc, inStart, inStart)) {
+                frontiers[part].push(u, getConnection(v, u));
+            }
+        }
+        for (int arc = inStart; arc < inEnd; arc++) {
+            int u = graph.getInSource(arc);
+            if (partOf[u] != part && isFirstArcTo(u, outStart, outEnd, inStart, arc)) {
+                frontiers[part].push(u, getConnection(v, u));
+            }
+        }
+    }
+
+    /**
+     * Finds out whether neighbour does not appear among preceding arcs.
+     * @param u             dense index of neighbour.
+     * @param outStart      first out-arc of the vertex.
+     * @param outEnd        end of preceding out-arcs.
+     * @param inStart       first in-arc of the vertex.
+     * @param inEnd         end of preceding in-arcs.
+     * @return true if no preceding arc leads to the neighbour.
+     */
+    private boolean isFirstArcTo(int u, int outStart, int outEnd, int inStart, int inEnd) {
+        for (int arc = outStart; arc < outEnd; arc++) {
+            if (graph.getOutTarget(arc) == u) {
+                return false;
+            }
+        }
+        for (int arc = inStart; arc < inEnd; arc++) {
+            if (graph.getInSource(arc) == u) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sums weights of all edges between two vertices.
+     * @param v     dense index of the first vertex.
+     * @param u     dense index of the second vertex.
+     * @return total weight of edges.
+     */
+    private double getConnection(int v, int u) {
+        double connection = 0;
+        for (int arc = graph.getOutStart(v); arc < graph.getOutEnd(v); arc++) {
+            if (graph.getOutTarget(arc) == u) {
+                connection += graph.getOutWeight(arc);
+            }
+        }
+        for (int arc = graph.getInStart(v); arc < graph.getInEnd(v); arc++) {
+            if (graph.getInSource(arc) == u) {
+                connection += graph.getInWeight(arc);
+            }
+        }
+        return Math.abs(connection);
+    }
+
+    /**
+     * Gets key of claim of vertex by part. Claims are ordered by position in batch, parts are then
+     * ranked in cyclic order starting at part given by seeded hash of the vertex, so each part wins some conflicts.
+     * @param v         dense vertex index.
+     * @param part      part number.
+     * @param position  position of the claim in batch of the part.
+     * @return key of claim, lower key wins.
+     */
+    private int getKey(int v, int part, int position) {
+        long hash = (v + 1) * 0x9E3779B97F4A7C15L + seed;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        hash ^= hash >>> 31;
+        int first = (int) Math.floorMod(hash, (long) partsCount);
+        return position * partsCount + Math.floorMod(part - first, partsCount);
+    }
+}
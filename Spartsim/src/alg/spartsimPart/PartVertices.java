@@ -0,0 +1,99 @@
+package alg.spartsimPart;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of lists of vertices of each part.
+ * Vertex is removed from its list by swapping it with the last vertex of the list,
+ * so moving vertex between parts costs O(1) and vertices of one part are listed
+ * without scanning the whole graph.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class PartVertices {
+    /** Vertices of each part, only the first counts[part] entries are used. */
+    private final int[][] vertices;
+    /** Number of vertices of each part. */
+    private final int[] counts;
+    /** Position of each vertex in list of its part, -1 for vertices without part. */
+    private final int[] positions;
+
+    /**
+     * Constructor of lists.
+     * @param partOf        part of each vertex, -1 for vertices without part.
+     * @param partsCount    number of parts.
+     */
+    public PartVertices(int[] partOf, int partsCount) {
+        this.counts = new int[partsCount];
+        for (int part : partOf) {
+            if (part != -1) {
+                counts[part]++;
+            }
+        }
+        this.vertices = new int[partsCount][];
+        for (int part = 0; part < partsCount; part++) {
+            vertices[part] = new int[Math.max(4, counts[part])];
+        }
+        Arrays.fill(counts, 0);
+        this.positions = new int[partOf.length];
+        for (int v = 0; v < partOf.length; v++) {
+            positions[v] = -1;
+            if (partOf[v] != -1) {
+                add(v, partOf[v]);
+            }
+        }
+    }
+
+    /**
+     * Gets number of vertices of part.
+     * @param part  part number.
+     * @return number of vertices.
+     */
+    public int getCount(int part) {
+        return counts[part];
+    }
+
+    /**
+     * Gets vertex of part.
+     * @param part  part number.
+     * @param i     position in list of part, lower than number of vertices of part.
+     * @return dense vertex index.
+     */
+    public int getVertex(int part, int i) {
+        return vertices[part][i];
+    }
+
+    /**
+     * Moves vertex between lists.
+     * @param v         dense vertex index.
+     * @param oldPart   current part of vertex, -1 for vertex without part.
+     * @param newPart   new part of vertex, -1 removes vertex from lists.
+     */
+    public void move(int v, int oldPart, int newPart) {
+        if (oldPart == newPart) {
+            return;
+        }
+        if (oldPart != -1) {
+            int last = vertices[oldPart][--counts[oldPart]];
+            vertices[oldPart][positions[v]] = last;
+            positions[last] = positions[v];
+            positions[v] = -1;
+        }
+        if (newPart != -1) {
+            add(v, newPart);
+        }
+    }
+
+    /**
+     * Appends vertex to list of part.
+     * @param v     dense vertex index.
+     * @param part  part number.
+     */
+    private void add(int v, int part) {
+        if (counts[part] == vertices[part].length) {
+            vertices[part] = Arrays.copyOf(vertices[part], 2 * counts[part]);
+        }
+        positions[v] = counts[part];
+        vertices[part][counts[part]++] = v;
+    }
+}
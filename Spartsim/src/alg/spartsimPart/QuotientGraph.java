@@ -0,0 +1,185 @@
+package alg.spartsimPart;
+
+import bp.roadnetworkpartitioning.CompactGraph;
+import bp.roadnetworkpartitioning.ConnectedComponents;
+import bp.roadnetworkpartitioning.PartWeightTracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of quotient graph of subparts. Each connected subpart is one node with weight
+ * of its vertices, adjacent subparts are connected by one edge with total weight of edges between them.
+ * Merging two subparts moves neighbours of the one with fewer neighbours to the other one,
+ * so all merges together cost O(m log m) for m quotient edges.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class QuotientGraph {
+    /** Connected subparts. */
+    private final ConnectedComponents components;
+    /** Weights of subparts. */
+    private final PartWeightTracker weights;
+    /** Neighbours of each subpart with weight of edges between them, null for merged subparts. */
+    private final List<Map<Integer, Double>> neighbours;
+    /** Subpart which each subpart was merged into, subpart itself if it was not merged. */
+    private final int[] mergedInto;
+    /** Number of merges of each subpart, it tells whether stored weight of subpart is current. */
+    private final int[] versions;
+    /** Number of subparts that were not merged. */
+    private int count;
+
+    /**
+     * Constructor of quotient graph, it is built in one pass over edges.
+     * @param compactGraph  compact form of partitioned graph.
+     * @param components    connected subparts of parts.
+     */
+    public QuotientGraph(CompactGraph compactGraph, ConnectedComponents components) {
+        this.components = components;
+        this.count = components.getCount();
+        int[] subpartOf = components.getComponentOf();
+        this.weights = new PartWeightTracker(compactGraph, subpartOf, count);
+        this.neighbours = new ArrayList<>(count);
+        this.mergedInto = new int[count];
+        this.versions = new int[count];
+        for (int i = 0; i < count; i++) {
+            neighbours.add(new HashMap<>());
+            mergedInto[i] = i;
+        }
+        for (int v = 0; v < subpartOf.length; v++) {
+            int subpart = subpartOf[v];
+            if (subpart == -1) {
+                continue;
+            }
+            for (int arc = compactGraph.getOutStart(v); arc < compactGraph.getOutEnd(v); arc++) {
+                int neighbour = subpartOf[compactGraph.getOutTarget(arc)];
+                if (neighbour != -1 && neighbour != subpart) {
+                    neighbours.get(subpart).merge(neighbour, compactGraph.getOutWeight(arc), Double::sum);
+                    neighbours.get(neighbour).merge(subpart, compactGraph.getOutWeight(arc), Double::sum);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets number of subparts that were not merged.
+     * @return number of subparts.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets number of all subparts including merged ones.
+     * @return number of subparts before merging.
+     */
+    public int getInitialCount() {
+        return mergedInto.length;
+    }
+
+    /**
+     * Gets weight of subpart.
+     * @param subpart   subpart number.
+     * @return weight of subpart with all subparts merged into it.
+     */
+    public double getWeight(int subpart) {
+        return weights.getWeight(subpart);
+    }
+
+    /**
+     * Gets neighbours of subpart. Returned map must not be modified.
+     * @param subpart   subpart that was not merged.
+     * @return neighbour subparts with total weight of edges to them.
+     */
+    public Map<Integer, Double> getNeighbours(int subpart) {
+        return neighbours.get(subpart);
+    }
+
+    /**
+     * Gets number of merges of subpart.
+     * @param subpart   subpart number.
+     * @return number of merges into subpart.
+     */
+    public int getVersion(int subpart) {
+        return versions[subpart];
+    }
+
+    /**
+     * Finds out whether subpart was merged into another one.
+     * @param subpart   subpart number.
+     * @return true if subpart was merged.
+     */
+    public boolean isMerged(int subpart) {
+        return mergedInto[subpart] != subpart;
+    }
+
+    /**
+     * Merges two adjacent subparts. Subpart with fewer neighbours is merged into the other one.
+     * @param first     first subpart.
+     * @param second    second subpart.
+     * @return subpart that holds both subparts.
+     */
+    public int merge(int first, int second) {
+        int survivor = neighbours.get(first).size() >= neighbours.get(second).size() ? first : second;
+        int merged = survivor == first ? second : first;
+        Map<Integer, Double> survivorNeighbours = neighbours.get(survivor);
+        survivorNeighbours.remove(merged);
+        for (Map.Entry<Integer, Double> entry : neighbours.get(merged).entrySet()) {
+            int neighbour = entry.getKey();
+            if (neighbour == survivor) {
+                continue;
+            }
+            survivorNeighbours.merge(neighbour, entry.getValue(), Double::sum);
+            Map<Integer, Double> neighbourNeighbours = neighbours.get(neighbour);
+            neighbourNeighbours.remove(merged);
+            neighbourNeighbours.merge(survivor, entry.getValue(), Double::sum);
+        }
+        neighbours.set(merged, null);
+        weights.mergeWeights(merged, survivor);
+        mergedInto[merged] = survivor;
+        versions[survivor]++;
+        count--;
+        return survivor;
+    }
+
+    /**
+     * Creates part number of each vertex, subparts that were not merged are numbered
+     * in order of their subpart numbers.
+     * @return part number of each vertex, -1 for vertices without part.
+     */
+    public int[] createPartOf() {
+        int[] numbers = new int[mergedInto.length];
+        int number = 0;
+        for (int subpart = 0; subpart < mergedInto.length; subpart++) {
+            numbers[subpart] = isMerged(subpart) ? -1 : number++;
+        }
+        int[] partOf = Arrays.copyOf(components.getComponentOf(), components.getComponentOf().length);
+        for (int v = 0; v < partOf.length; v++) {
+            if (partOf[v] != -1) {
+                partOf[v] = numbers[find(partOf[v])];
+            }
+        }
+        return partOf;
+    }
+
+    /**
+     * Finds subpart that holds given subpart, path is compressed on the way.
+     * @param subpart   subpart number.
+     * @return subpart that was not merged.
+     */
+    private int find(int subpart) {
+        int root = subpart;
+        while (mergedInto[root] != root) {
+            root = mergedInto[root];
+        }
+        while (mergedInto[subpart] != root) {
+            int next = mergedInto[subpart];
+            mergedInto[subpart] = root;
+            subpart = next;
+        }
+        return root;
+    }
+}
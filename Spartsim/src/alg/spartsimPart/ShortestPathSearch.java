@@ -0,0 +1,251 @@
+package alg.spartsimPart;
+
+import bp.roadnetworkpartitioning.CompactGraph;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Implementation of Dijkstra's search on compact graph.
+ * Edges are traversed in both directions and their weight is used as distance.
+ * Unsettled vertices are kept in indexed binary heap, distances and predecessors are
+ * stored in arrays that are reset only for vertices touched by the previous search,
+ * so one instance can run many searches.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class ShortestPathSearch {
+    /** Searched graph. */
+    private final CompactGraph graph;
+    /** Distance of each vertex from the nearest source, infinity for unreached vertices. */
+    private final double[] distances;
+    /** Predecessor of each vertex on the shortest path, -1 for sources and unreached vertices. */
+    private final int[] predecessors;
+    /** Position of each vertex in heap, -1 if vertex is not in heap. */
+    private final int[] heapIndex;
+    /** Flag of settled vertices. */
+    private final boolean[] settled;
+    /** Binary heap of vertices ordered by distance. */
+    private final int[] heap;
+    /** Vertices touched by the last search. */
+    private final int[] touched;
+    /** Number of vertices in heap. */
+    private int heapSize = 0;
+    /** Number of vertices touched by the last search. */
+    private int touchedCount = 0;
+
+    /**
+     * Constructor of search.
+     * @param graph     searched graph.
+     */
+    public ShortestPathSearch(CompactGraph graph) {
+        this.graph = graph;
+        int n = graph.getVertexCount();
+        this.distances = new double[n];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        this.predecessors = new int[n];
+        Arrays.fill(predecessors, -1);
+        this.heapIndex = new int[n];
+        Arrays.fill(heapIndex, -1);
+        this.settled = new boolean[n];
+        this.heap = new int[n];
+        this.touched = new int[n];
+    }
+
+    /**
+     * Searches the nearest target vertex from given source vertices.
+     * Search stops when the first target vertex is settled.
+     * @param sources       dense indices of source vertices.
+     * @param passable      test of vertices that search may enter, sources need not pass it.
+     * @param target        test of target vertices.
+     * @return dense index of the nearest target vertex or -1 if no target is reachable.
+     */
+    public int search(int[] sources, IntPredicate passable, IntPredicate target) {
+        return search(sources, sources.length, passable, target);
+    }
+
+    /**
+     * Searches the nearest target vertex from the first vertices of given array.
+     * Search stops when the first target vertex is settled.
+     * @param sources       dense indices of source vertices.
+     * @param sourcesCount  number of source vertices at the start of array.
+     * @param passable      test of vertices that search may enter, sources need not pass it.
+     * @param target        test of target vertices.
+     * @return dense index of the nearest target vertex or -1 if no target is reachable.
+     */
+    public int search(int[] sources, int sourcesCount, IntPredicate passable, IntPredicate target) {
+        reset();
+        for (int i = 0; i < sourcesCount; i++) {
+            int source = sources[i];
+            if (distances[source] != 0) {
+                touch(source);
+                distances[source] = 0;
+                insert(source);
+            }
+        }
+        while (heapSize > 0) {
+            int u = poll();
+            settled[u] = true;
+            if (target.test(u)) {
+                return u;
+            }
+            for (int arc = graph.getOutStart(u); arc < graph.getOutEnd(u); arc++) {
+                relax(u, graph.getOutTarget(arc), graph.getOutWeight(arc), passable);
+            }
+            for (int arc = graph.getInStart(u); arc < graph.getInEnd(u); arc++) {
+                relax(u, graph.getInSource(arc), graph.getInWeight(arc), passable);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets distance of vertex found by the last search.
+     * @param v     dense vertex index.
+     * @return distance from the nearest source, infinity for unreached vertex.
+     */
+    public double getDistance(int v) {
+        return distances[v];
+    }
+
+    /**
+     * Gets predecessor of vertex on the shortest path found by the last search.
+     * @param v     dense vertex index.
+     * @return dense index of predecessor, -1 for source or unreached vertex.
+     */
+    public int getPredecessor(int v) {
+        return predecessors[v];
+    }
+
+    /**
+     * Gets shortest path found by the last search.
+     * @param v     dense index of reached vertex.
+     * @return dense vertex indices of the path from source to given vertex.
+     */
+    public int[] getPath(int v) {
+        int length = 0;
+        for (int u = v; u != -1; u = predecessors[u]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int u = v; u != -1; u = predecessors[u]) {
+            path[--length] = u;
+        }
+        return path;
+    }
+
+    /**
+     * Relaxes edge from settled vertex.
+     * @param u             settled vertex.
+     * @param v             neighbour.
+     * @param weight        weight of edge.
+     * @param passable      test of vertices that search may enter.
+     */
+    private void relax(int u, int v, double weight, IntPredicate passable) {
+        if (settled[v] || !passable.test(v)) {
+            return;
+        }
+        double distance = distances[u] + weight;
+        if (distance < distances[v]) {
+            if (distances[v] == Double.POSITIVE_INFINITY) {
+                touch(v);
+            }
+            distances[v] = distance;
+            predecessors[v] = u;
+            if (heapIndex[v] == -1) {
+                insert(v);
+            } else {
+                siftUp(heapIndex[v]);
+            }
+        }
+    }
+
+    /** Clears state of vertices touched by the last search. */
+    private void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            int v = touched[i];
+            distances[v] = Double.POSITIVE_INFINITY;
+            predecessors[v] = -1;
+            heapIndex[v] = -1;
+            settled[v] = false;
+        }
+        touchedCount = 0;
+        heapSize = 0;
+    }
+
+    /**
+     * Records vertex as touched by the search.
+     * @param v     dense vertex index.
+     */
+    private void touch(int v) {
+        touched[touchedCount++] = v;
+    }
+
+    /**
+     * Inserts vertex into heap.
+     * @param v     dense vertex index.
+     */
+    private void insert(int v) {
+        heap[heapSize] = v;
+        heapIndex[v] = heapSize;
+        heapSize++;
+        siftUp(heapSize - 1);
+    }
+
+    /**
+     * Removes vertex with the lowest distance from heap.
+     * @return dense index of removed vertex.
+     */
+    private int poll() {
+        int v = heap[0];
+        heapIndex[v] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            siftDown(0);
+        }
+        return v;
+    }
+
+    /**
+     * Moves heap entry up while its distance is lower than distance of its parent.
+     * @param i     position in heap.
+     */
+    private void siftUp(int i) {
+        int v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (distances[heap[parent]] <= distances[v]) {
+                break;
+            }
+            heap[i] = heap[parent];
+            heapIndex[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        heapIndex[v] = i;
+    }
+
+    /**
+     * Moves heap entry down while its distance is higher than distance of its child.
+     * @param i     position in heap.
+     */
+    private void siftDown(int i) {
+        int v = heap[i];
+        while (2 * i + 1 < heapSize) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && distances[heap[child + 1]] < distances[heap[child]]) {
+                child++;
+            }
+            if (distances[heap[child]] >= distances[v]) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapIndex[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = v;
+        heapIndex[v] = i;
+    }
+}
@@ -3,6 +3,7 @@ package alg.spartsimPart;
 import bp.roadnetworkpartitioning.*;
 
 import java.util.*;
+import java.util.function.IntPredicate;
 
 /**
  * Class with SParTSim algorithm implementation.
@@ -11,23 +12,107 @@ import java.util.*;
  */
 public class SpartsimAlgorithm extends APartitionAlgorithm {
 
+    /** Name of growing mode where parts take turns on one thread. */
+    private static final String SEQUENTIAL = "sequential";
+    /** Name of growing mode where each part grows in its own task. */
+    private static final String PARALLEL = "parallel";
+    /** Name of seeding mode picking free vertices with the highest degree. */
+    private static final String DEGREE = "degree";
+    /** Name of seeding mode picking centres of regions of equal weight. */
+    private static final String SPREAD = "spread";
     /**  Total value of the graph. */
     private double graphValue = 0;
+    /** Compact form of partitioned graph. */
+    private CompactGraph compactGraph = null;
+    /** Shortest path search reused by all trades. */
+    private ShortestPathSearch pathSearch = null;
+    /** Vertices of each part during balancing. */
+    private PartVertices partVertices = null;
+    /** Buffer of border vertices of maximal part, sources of path search. */
+    private int[] sources = null;
+    /** Buffer of border vertices of minimal part. */
+    private int[] targets = null;
+    /** Flag of border vertices of minimal part, it is cleared after each search. */
+    private boolean[] minBorder = null;
+    /** Buffer of vertices moved out of maximal part. */
+    private int[] queue = null;
     /** Maximal difference between each two parts. */
     private double epsilon = 10;
+    /** True if regions grow in parallel. */
+    private boolean parallelGrowing = false;
+    /** Seed of resolving conflicts of parallel growing. */
+    private long seed = 0;
+    /** True if starting vertices are spread over the graph. */
+    private boolean spreadSeeding = false;
+
+    /** Candidate merge of two adjacent subparts. */
+    private static final class Merge implements Comparable<Merge> {
+        /** First subpart. */
+        private final int first;
+        /** Version of first subpart when the merge was created. */
+        private final int firstVersion;
+        /** Second subpart. */
+        private final int second;
+        /** Version of second subpart when the merge was created. */
+        private final int secondVersion;
+        /** Difference of joined weight from ideal part weight. */
+        private final double difference;
+        /** Weight of edges between subparts. */
+        private final double cutWeight;
+
+        /**
+         * Constructor of candidate merge.
+         * @param first             first subpart.
+         * @param firstVersion      version of first subpart.
+         * @param second            second subpart.
+         * @param secondVersion     version of second subpart.
+         * @param difference        difference of joined weight from ideal part weight.
+         * @param cutWeight         weight of edges between subparts.
+         */
+        private Merge(int first, int firstVersion, int second, int secondVersion, double difference, double cutWeight) {
+            this.first = first;
+            this.firstVersion = firstVersion;
+            this.second = second;
+            this.secondVersion = secondVersion;
+            this.difference = difference;
+            this.cutWeight = cutWeight;
+        }
+
+        /**
+         * Merges with lower difference go first, ties are broken by higher cut weight and then by subparts.
+         * @param other     other merge.
+         * @return negative number if this merge goes first.
+         */
+        @Override
+        public int compareTo(Merge other) {
+            int result = Double.compare(difference, other.difference);
+            if (result == 0) {
+                result = Double.compare(other.cutWeight, cutWeight);
+            }
+            if (result == 0) {
+                result = Integer.compare(first, other.first);
+            }
+            return result == 0 ? Integer.compare(second, other.second) : result;
+        }
+    }
 
     @Override
     protected GraphPartition createGraphPartition() {
         GraphPartition graphPartition = null;
         if (getGraph() != null) {
-            Map<Vertex, Integer> verticesParts = new HashMap<>();
-            List<Graph> parts = new ArrayList<>(getPartsCount());
-            int[] stop = initialise(parts, verticesParts);
-            growRegions(parts, verticesParts, stop);
-            balancePartitioning(parts, verticesParts);
-            List<Graph> subGraphs = computeConnectedSubgraphs(parts);
-            attach(subGraphs);
-            graphPartition = new GraphPartition(subGraphs);
+            readParameters();
+            compactGraph = getCompactGraph();
+            pathSearch = new ShortestPathSearch(compactGraph);
+            int[] partOf = initialise(compactGraph);
+            if (parallelGrowing) {
+                new ParallelRegionGrowing(compactGraph, partOf, getPartsCount(), seed).grow();
+            } else {
+                growRegions(compactGraph, partOf);
+            }
+            balancePartitioning(partOf);
+            QuotientGraph quotientGraph = new QuotientGraph(compactGraph, new ConnectedComponents(compactGraph, partOf));
+            attach(quotientGraph);
+            graphPartition = createPartition(quotientGraph.createPartOf(), quotientGraph.getCount());
         }
         return graphPartition;
     }
@@ -36,6 +121,9 @@ public class SpartsimAlgorithm extends APartitionAlgorithm {
     public Map<String, String> getAllCustomParameters() {
         Map<String, String> customParameters = new TreeMap<>();
         customParameters.put("Epsilon", "10");
+        customParameters.put("Growing", SEQUENTIAL);
+        customParameters.put("Seed", "0");
+        customParameters.put("Seeding", DEGREE);
         return customParameters;
     }
 
@@ -43,6 +131,12 @@ public class SpartsimAlgorithm extends APartitionAlgorithm {
     public Map<String, String> getAllCustomParametersDescriptions() {
         Map<String, String> customParametersDescriptions = new TreeMap<>();
         customParametersDescriptions.put("Epsilon", "Maximal difference between two parts.");
+        customParametersDescriptions.put("Growing", "Growing of regions: \"" + SEQUENTIAL + "\" lets parts take "
+                + "turns, \"" + PARALLEL + "\" grows each part in its own task.");
+        customParametersDescriptions.put("Seed", "Seed deciding which part gets vertex claimed by more parts "
+                + "in parallel growing.");
+        customParametersDescriptions.put("Seeding", "Selection of starting vertices: \"" + DEGREE + "\" takes "
+                + "vertices with the highest degree, \"" + SPREAD + "\" takes centres of regions of equal weight.");
         return customParametersDescriptions;
     }
 
@@ -57,600 +151,396 @@ public class SpartsimAlgorithm extends APartitionAlgorithm {
     }
 
     /**
-     * Initialise partition by adding first vertex to each part.
-     * @param parts             list of parts.
-     * @param verticesParts     map where key is vertex and value is part number.
-     * @return  array indicating if part has grown during last growing.
-     */
-    private int[] initialise(List<Graph> parts, Map<Vertex, Integer> verticesParts){
-        int[] stop = new int[getPartsCount()];
-        for (int i = 0; i < getPartsCount(); i++) {
-            parts.add(new Graph(new HashMap<>(), null));
-            Vertex baseVertex = getBestCandidateVertex(verticesParts);
-            parts.get(i).getVertices().put(baseVertex.getId(), baseVertex);
-            verticesParts.put(baseVertex, i);
-            stop[i] = 1;
-        }
-        return stop;
-    }
-
-    /**
-     * Grows regions (parts).
-     * @param parts             list of parts.
-     * @param verticesParts     map where key is vertex and value is part number.
-     * @param stop              array indicating if part has grown during last growing.
+     * Reads epsilon, growing, seed and seeding parameters.
      */
-    private void growRegions(List<Graph> parts, Map<Vertex, Integer> verticesParts, int[] stop){
-        while (!isZero(stop)) {
-            for (int i = 0; i < getPartsCount(); i++) {
-                if (stop[i] != 0) {
-                    boolean hasGrown = grow(i, parts.get(i), verticesParts);
-                    if (!hasGrown) {
-                        stop[i] = 0;
-                    }
-                }
+    private void readParameters() {
+        if (getParameters() != null && getParameters().containsKey("Epsilon")) {
+            try {
+                epsilon = Double.parseDouble(getParameters().get("Epsilon"));
+            } catch (Exception e) {
+                System.out.println("Could not parse " + getParameters().get("Epsilon") + "to double." );
             }
         }
-    }
-
-    /**
-     * Balance partitioning so maximum difference between two parts is epsilon (one of the parameters).
-     * @param parts             list of parts.
-     * @param verticesParts     map where key is vertex and value is part number.
-     */
-    private void balancePartitioning(List<Graph> parts, Map<Vertex, Integer> verticesParts){
-        boolean balanced = false;
-        int enoughIterations = 50;
-        int i = 0;
-        graphValue = getGraph().getWeightValue();
-        double partValue = graphValue / getPartsCount();
-        if (getParameters() != null && getParameters().containsKey("epsilon")) {
-            epsilon = Double.parseDouble(getParameters().get("epsilon"));
+        if (getParameters() != null && getParameters().containsKey("Growing")) {
+            parallelGrowing = PARALLEL.equals(getParameters().get("Growing").trim().toLowerCase());
         }
-        while (!balanced && (i < enoughIterations)) {
-            Graph maxPart = getMaxPart(parts);
-            Graph minPart = getMinPart(parts);
-            if (((maxPart.getWeightValue() - epsilon) < partValue)
-                    && (partValue < (minPart.getWeightValue() + epsilon))) {
-                balanced = true;
-            } else {
-                trade(parts, maxPart, minPart, verticesParts);
-            }
-            i++;
+        if (getParameters() != null && getParameters().containsKey("Seeding")) {
+            spreadSeeding = SPREAD.equals(getParameters().get("Seeding").trim().toLowerCase());
         }
-    }
-
-    /**
-     * Finds all possible part connection and connects most suitable parts,
-     * so it has given part count.
-     * @param subparts  All parts and subparts previously created.
-     */
-    private void attach(List<Graph> subparts){
-        if(subparts.size() == getPartsCount()){
-            return;
-        }
-        int partsCount = subparts.size();
-        double partValue = graphValue/ getPartsCount();
-        while (partsCount > getPartsCount()){
-            double smallestDiff = graphValue;
-            Graph smallestPart = null;
-            Graph smallestNeighbour = null;
-            for (int i = 0; i < subparts.size(); i++) {
-                Graph part = subparts.get(i);
-                if (((part.getWeightValue() - epsilon) < partValue) && (partValue < (part.getWeightValue() + epsilon))) {
-                    continue;
-                }
-                for (Graph neighbour : getPartNeighbours(part, subparts)) {
-                    if(subparts.contains(neighbour)) {
-                        double value = part.getWeightValue() + neighbour.getWeightValue();
-                        if (Math.abs(partValue - value) <= smallestDiff) {
-                            smallestDiff = Math.abs(partValue - value);
-                            smallestPart = part;
-                            smallestNeighbour = neighbour;
-                        }
-                    }
-                }
-            }
-            if (smallestPart != null) {
-                smallestPart.getVertices().putAll(smallestNeighbour.getVertices());
-                subparts.remove(smallestNeighbour);
-                partsCount = subparts.size();
+        if (getParameters() != null && getParameters().containsKey("Seed")) {
+            try {
+                seed = Long.parseLong(getParameters().get("Seed").trim());
+            } catch (Exception e) {
+                System.out.println("Could not parse " + getParameters().get("Seed") + "to long." );
             }
         }
     }
 
     /**
-     * Gets all neighbour parts of one given part.
-     * @param part     given part.
-     * @param subParts  all parts and subparts.
-     * @return list of all neighbour parts.
+     * Initialise partition by adding first vertex to each part.
+     * Starting vertices are either vertices with the highest degree (the lowest dense index on ties)
+     * or vertices spread over the graph.
+     * @param compactGraph      compact form of partitioned graph.
+     * @return part of each vertex, -1 for vertices without part.
      */
-    private List<Graph> getPartNeighbours(Graph part, List<Graph> subParts) {
-        List<Graph> neighbours = new ArrayList<>();
-        for (Vertex vertex: part.getVertices().values()) {
-            for (Edge edge: vertex.getStartingEdges()) {
-                Vertex v = edge.getEndpoint();
-                if(!part.getVertices().containsValue(v)){
-                    Graph neighbourPart = getNeighbourPart(subParts, v);
-                    if(!neighbours.contains(neighbourPart)){
-                        neighbours.add(neighbourPart);
-                    }
+    private int[] initialise(CompactGraph compactGraph){
+        int[] partOf = new int[compactGraph.getVertexCount()];
+        Arrays.fill(partOf, -1);
+        if (spreadSeeding) {
+            int[] seeds = new SpreadSeeds(compactGraph).select(getPartsCount());
+            for (int i = 0; i < seeds.length; i++) {
+                if (seeds[i] != -1) {
+                    partOf[seeds[i]] = i;
                 }
             }
-            for(Edge edge: vertex.getEndingEdges()){
-                Vertex neighbour = edge.getStartpoint();
-                if(!part.getVertices().containsValue(neighbour)){
-                    Graph neighbourPart = getNeighbourPart(subParts, neighbour);
-                    if(!neighbours.contains(neighbourPart)){
-                        neighbours.add(neighbourPart);
-                    }
-                }
-
-            }
+            return partOf;
         }
-        return neighbours;
-    }
-
-    /**
-     * Gets part where given vertex belongs.
-     * @param subParts      all parts.
-     * @param v             given vertex.
-     * @return  part where given vertex belongs.
-     */
-    private Graph getNeighbourPart(List<Graph> subParts, Vertex v) {
-        for (Graph subPart : subParts) {
-            if (subPart.getVertices().containsKey(v.getId())) {
-                return subPart;
-            }
+        double[] keys = new double[partOf.length];
+        for (int v = 0; v < partOf.length; v++) {
+            keys[v] = -compactGraph.getDegree(v);
         }
-        return null;
+        int[] candidates = IndexSort.sort(keys);
+        for (int i = 0; i < getPartsCount() && i < candidates.length; i++) {
+            partOf[candidates[i]] = i;
+        }
+        return partOf;
     }
 
     /**
-     * Trades vertices between parts so it balances the partition.
-     * @param parts             all parts.
-     * @param maxPart           maximal part.
-     * @param minPart           minimal part.
-     * @param verticesParts     mapping of vertices and their part number.
+     * Grows regions (parts). Parts take turns, each part takes one free vertex with the strongest
+     * connection to it. Frontier of each part is kept in heap that is updated by neighbours
+     * of every claimed vertex, so each vertex and each edge is processed only a constant number of times.
+     * @param compactGraph      compact form of partitioned graph.
+     * @param partOf            part of each vertex, -1 for vertices without part.
      */
-    private void trade(List<Graph> parts, Graph maxPart, Graph minPart, Map<Vertex, Integer> verticesParts) {
-        double difference = (maxPart.getWeightValue() - minPart.getWeightValue())/2;
-        List<Vertex> minPath = new LinkedList<>();
-        findShortestPathBetweenParts(maxPart, minPart, minPath);
-        double moved = 0.0;
-        int i = minPath.size() -1;
-        while(moved < difference && i > 0){
-            double edgeWeight = 0;
-            Vertex vertex1 = minPath.get(i);
-            Vertex vertex2 = minPath.get(i-1);
-            for (Edge edge: vertex1.getStartingEdges()) {
-                if(edge.getEndpoint().equals(vertex2)){
-                    edgeWeight += edge.getWeight();
-                }
-            }
-            for (Edge edge: vertex2.getStartingEdges()) {
-                if(edge.getEndpoint().equals(vertex1)){
-                    edgeWeight += edge.getWeight();
-                }
-            }
-            double vertexWeight = vertex2.getValue();
-            moveVertexIn(vertex2, parts, minPart, verticesParts);
-            moved += edgeWeight + vertexWeight;
-            i--;
-        }
-        moved = 0.0;
-        Vertex vertex = minPath.get(0);
-        double vertexWeight = vertex.getValue();
-        while((moved < difference) && vertex != null){
-            Vertex vertex1 = null;
-            double edgeWeight = 0;
-            for (Edge edge: vertex.getStartingEdges()) {
-                if(maxPart.getVertices().containsValue(edge.getEndpoint())){
-                    vertex1 = edge.getEndpoint();
-                    edgeWeight += edge.getWeight();
-                }
+    private void growRegions(CompactGraph compactGraph, int[] partOf){
+        FrontierHeap[] frontiers = new FrontierHeap[getPartsCount()];
+        double[] connection = new double[compactGraph.getVertexCount()];
+        int[] lastVisitor = new int[compactGraph.getVertexCount()];
+        Arrays.fill(lastVisitor, -1);
+        for (int i = 0; i < getPartsCount(); i++) {
+            frontiers[i] = new FrontierHeap();
+        }
+        for (int v = 0; v < partOf.length; v++) {
+            if (partOf[v] != -1) {
+                addFreeNeighbours(compactGraph, v, partOf, frontiers[partOf[v]], connection, lastVisitor);
             }
-            if(vertex1 != null){
-                for (Edge edge: vertex1.getStartingEdges()) {
-                    if(edge.getEndpoint().equals(vertex)){
-                        edgeWeight += edge.getWeight();
-                    }
+        }
+        boolean grown = true;
+        while (grown) {
+            grown = false;
+            for (int i = 0; i < getPartsCount(); i++) {
+                int v = frontiers[i].poll(partOf);
+                if (v != -1) {
+                    partOf[v] = i;
+                    addFreeNeighbours(compactGraph, v, partOf, frontiers[i], connection, lastVisitor);
+                    grown = true;
                 }
-                vertexWeight += vertex1.getValue();
             }
-            moved += edgeWeight + vertexWeight;
-            moveVertexOut(vertex, parts, maxPart, verticesParts, minPath);
-            vertexWeight = 0;
-            vertex = vertex1;
         }
     }
 
     /**
-     * Moves vertex out of given part.
-     * @param vertex            the vertex.
-     * @param parts             all parts.
-     * @param maxPart           given part.
-     * @param verticesParts     mapping of vertices and their part number.
+     * Adds free neighbours of vertex to frontier of its part. Key of neighbour is weight
+     * of all edges between the vertex and the neighbour.
+     * @param compactGraph      compact form of partitioned graph.
+     * @param v                 dense index of vertex claimed by the part.
+     * @param partOf            part of each vertex, -1 for vertices without part.
+     * @param frontier          frontier of the part.
+     * @param connection        zero-filled array used for summing weights of edges to neighbours.
+     * @param lastVisitor       last vertex whose neighbours were added, for each vertex.
      */
-    private void moveVertexOut(Vertex vertex, List<Graph> parts, Graph maxPart, Map<Vertex, Integer> verticesParts,
-                               List<Vertex> minPath) {
-        int newPart = -1;
-        for (int i = 0; i < minPath.size() - 1; i++) {
-            if(maxPart.getVertices().containsValue(minPath.get(i))){
-                newPart = verticesParts.get(minPath.get(i-1));
-            }
+    private void addFreeNeighbours(CompactGraph compactGraph, int v, int[] partOf, FrontierHeap frontier,
+                                   double[] connection, int[] lastVisitor) {
+        for (int arc = compactGraph.getOutStart(v); arc < compactGraph.getOutEnd(v); arc++) {
+            connection[compactGraph.getOutTarget(arc)] += compactGraph.getOutWeight(arc);
         }
-        if (newPart > -1) {
-            verticesParts.put(vertex, newPart);
-            maxPart.getVertices().remove(vertex.getId());
-            parts.get(newPart).getVertices().put(vertex.getId(), vertex);
+        for (int arc = compactGraph.getInStart(v); arc < compactGraph.getInEnd(v); arc++) {
+            connection[compactGraph.getInSource(arc)] += compactGraph.getInWeight(arc);
         }
-    }
-
-    /**
-     * Moves vertex inside given part.
-     * @param vertex        the vertex.
-     * @param parts         all parts.
-     * @param minPart       the given path.
-     * @param verticesParts mapping of vertices and their part number.
-     */
-    private void moveVertexIn(Vertex vertex, List<Graph> parts, Graph minPart, Map<Vertex, Integer> verticesParts) {
-        int part = verticesParts.get(vertex);
-        int partNumber = getPartNumber(parts, minPart);
-        verticesParts.put(vertex, partNumber);
-        parts.get(part).getVertices().remove(vertex.getId());
-        minPart.getVertices().put(vertex.getId(), vertex);
-    }
-
-    /**
-     * Gets number of given part.
-     * @param parts     list of all parts.
-     * @param minPart   given part.
-     * @return number of given part.
-     */
-    private int getPartNumber(List<Graph> parts, Graph minPart) {
-        int partNumber = -1;
-        for (int i = 0; i < parts.size(); i++) {
-            if (parts.get(i).equals(minPart)) {
-                return i;
-            }
+        for (int arc = compactGraph.getOutStart(v); arc < compactGraph.getOutEnd(v); arc++) {
+            pushFreeNeighbour(compactGraph.getOutTarget(arc), v, partOf, frontier, connection, lastVisitor);
         }
-        return partNumber;
-    }
-
-    /**
-     * Finds the shortest path between maximal and minimal part.
-     * @param maxPart       index of max part.
-     * @param minPart       index of min part.
-     */
-    private void findShortestPathBetweenParts(Graph maxPart, Graph minPart, List<Vertex> minPath) {
-        List<Vertex> maxBorderPart = getBorderVertices(maxPart);
-        List<Vertex> minBorderPart = getBorderVertices(minPart);
-        double minValue = Double.MAX_VALUE;
-        for (Vertex maxVertex: maxBorderPart) {
-            minValue = dijkstrasSearch(maxVertex, minBorderPart, minPart, maxPart, minPath, minValue);
+        for (int arc = compactGraph.getInStart(v); arc < compactGraph.getInEnd(v); arc++) {
+            pushFreeNeighbour(compactGraph.getInSource(arc), v, partOf, frontier, connection, lastVisitor);
         }
     }
 
     /**
-     * Implementation of Dijkstra's search.
-     * @param maxVertex     maximal vertex.
-     * @param minBorderPart part with minimal border.
-     * @return minimal value of path.
+     * Inserts free neighbour with its summed connection into frontier once and clears the connection.
+     * @param u             dense index of neighbour.
+     * @param v             dense index of vertex claimed by the part.
+     * @param partOf        part of each vertex, -1 for vertices without part.
+     * @param frontier      frontier of the part.
+     * @param connection    summed weights of edges to neighbours.
+     * @param lastVisitor   last vertex whose neighbours were added, for each vertex.
      */
-    private double dijkstrasSearch(Vertex maxVertex, List<Vertex> minBorderPart, Graph minPart, Graph maxPart, List<Vertex> minPath, double minValue) {
-        Map<Vertex, Double> distances = new HashMap<>();
-        Map<Vertex, List<Vertex>> shortestPaths = new HashMap<>();
-        distances.put(maxVertex, 0.0);
-
-        Set<Vertex> settledNodes = new HashSet<>();
-        Set<Vertex> unsettledNodes = new HashSet<>();
-
-        unsettledNodes.add(maxVertex);
-        while (unsettledNodes.size() != 0) {
-            Vertex currentNode = getLowestDistanceNode(unsettledNodes, distances);
-            unsettledNodes.remove(currentNode);
-            Map<Vertex, Double> neighbours = getAllVertexNeighbours(currentNode);
-            for (Map.Entry< Vertex, Double> neighbour: neighbours.entrySet()) {
-                Vertex adjacentNode = neighbour.getKey();
-                double edgeWeight = neighbour.getValue();
-                if (!settledNodes.contains(adjacentNode) && !maxPart.getVertices().containsKey(adjacentNode.getId()) && (!minPart.getVertices().containsKey(adjacentNode.getId()) || minBorderPart.contains(adjacentNode))) {
-                    calculateMinimumDistance(adjacentNode, edgeWeight, currentNode, distances, shortestPaths);
-                    unsettledNodes.add(adjacentNode);
-                }
-            }
-            settledNodes.add(currentNode);
-        }
-        for (Vertex vertex: minBorderPart) {
-            if(distances.containsKey(vertex)){
-                double value = distances.get(vertex);
-                if(minValue > value){
-                    minValue = value;
-                    minPath.clear();
-                    minPath.add(vertex);
-                    minPath.addAll(shortestPaths.get(vertex));
-                }
+    private void pushFreeNeighbour(int u, int v, int[] partOf, FrontierHeap frontier, double[] connection,
+                                   int[] lastVisitor) {
+        if (lastVisitor[u] != v) {
+            lastVisitor[u] = v;
+            if (partOf[u] == -1) {
+                frontier.push(u, Math.abs(connection[u]));
             }
+            connection[u] = 0;
         }
-        return  minValue;
     }
 
     /**
-     * Gets vertex with the lowest distance.
-     * @param unsettledNodes    Set of vertices.
-     * @param distances         Map of distances where key is vertex and value is distance.
-     * @return  vertex with the lowest distance.
+     * Balance partitioning so maximum difference between two parts is epsilon (one of the parameters).
+     * Weights of parts are kept by tracker, so the heaviest and the lightest part are known without
+     * summing the parts again after each trade.
+     * @param partOf    part of each vertex, -1 for vertices without part.
      */
-    private static Vertex getLowestDistanceNode(Set<Vertex> unsettledNodes, Map<Vertex, Double> distances) {
-        Vertex lowestDistanceNode = null;
-        double lowestDistance = Double.MAX_VALUE;
-        for (Vertex node: unsettledNodes) {
-            double nodeDistance = distances.get(node);
-            if (nodeDistance < lowestDistance) {
-                lowestDistance = nodeDistance;
-                lowestDistanceNode = node;
+    private void balancePartitioning(int[] partOf){
+        boolean balanced = false;
+        int enoughIterations = 50;
+        int i = 0;
+        graphValue = compactGraph.getTotalWeight();
+        double partValue = graphValue / getPartsCount();
+        PartWeightTracker weights = new PartWeightTracker(compactGraph, partOf, getPartsCount());
+        int n = compactGraph.getVertexCount();
+        partVertices = new PartVertices(partOf, getPartsCount());
+        sources = new int[n];
+        targets = new int[n];
+        minBorder = new boolean[n];
+        queue = new int[n];
+        while (!balanced && (i < enoughIterations)) {
+            int maxPart = weights.getMaxPart();
+            int minPart = weights.getMinPart();
+            if (isBalanced(weights.getWeight(maxPart), partValue) && isBalanced(weights.getWeight(minPart), partValue)) {
+                balanced = true;
+            } else if (!trade(weights, maxPart, minPart)) {
+                break;
             }
+            i++;
         }
-        return lowestDistanceNode;
+        partVertices = null;
+        sources = null;
+        targets = null;
+        minBorder = null;
+        queue = null;
     }
 
     /**
-     * Calculates minimum distance.
-     * @param evaluationNode    Vertex for evaluation.
-     * @param edgeWeigh         Weight of edge between these two vertices.
-     * @param sourceNode        Source vertex.
-     * @param distances         Distances between vertices.
-     * @param shortestPaths     Shortest paths between vertices.
+     * Connects most suitable adjacent subparts until there is given part count. Pairs of adjacent
+     * subparts are kept in heap ordered by difference of their joined weight from ideal part weight,
+     * pairs of two subparts that are already balanced are left out. After a merge only pairs
+     * of the joined subpart are added, outdated pairs are recognised by versions of subparts.
+     * @param quotientGraph     quotient graph of connected subparts.
      */
-    private static void calculateMinimumDistance(Vertex evaluationNode, double edgeWeigh, Vertex sourceNode,
-                                                 Map<Vertex, Double> distances, Map<Vertex, List<Vertex>> shortestPaths) {
-        double sourceDistance = distances.get(sourceNode);
-        if ((distances.get(evaluationNode) == null)|| (sourceDistance + edgeWeigh < distances.get(evaluationNode))) {
-            distances.put(evaluationNode, sourceDistance + edgeWeigh);
-            List<Vertex> shortestPath;
-            if(shortestPaths.containsKey(sourceNode)){
-                shortestPath = new LinkedList<>(shortestPaths.get(sourceNode));
-            } else{
-                shortestPath = new LinkedList<>();
+    private void attach(QuotientGraph quotientGraph){
+        double partValue = graphValue / getPartsCount();
+        PriorityQueue<Merge> merges = new PriorityQueue<>();
+        for (int subpart = 0; subpart < quotientGraph.getInitialCount(); subpart++) {
+            for (Map.Entry<Integer, Double> neighbour : quotientGraph.getNeighbours(subpart).entrySet()) {
+                if (subpart < neighbour.getKey()) {
+                    addMerge(merges, quotientGraph, subpart, neighbour.getKey(), neighbour.getValue(), partValue);
+                }
             }
-            shortestPath.add(sourceNode);
-            shortestPaths.put(evaluationNode, shortestPath);
         }
-    }
-
-    /**
-     * Gets border vertices of part.
-     * @param part          part.
-     * @return  border vertices.
-     */
-    private List<Vertex> getBorderVertices(Graph part) {
-        List<Vertex> borderPart = new ArrayList<>();
-        for (Vertex vertex: part.getVertices().values()) {
-            boolean included = false;
-            for (Edge edge: vertex.getStartingEdges()) {
-                Vertex v = edge.getEndpoint();
-                if(!part.getVertices().containsKey(v.getId())){
-                    borderPart.add(vertex);
-                    included = true;
-                }
+        while (quotientGraph.getCount() > getPartsCount() && !merges.isEmpty()) {
+            Merge merge = merges.poll();
+            if (quotientGraph.isMerged(merge.first) || quotientGraph.isMerged(merge.second)
+                    || quotientGraph.getVersion(merge.first) != merge.firstVersion
+                    || quotientGraph.getVersion(merge.second) != merge.secondVersion) {
+                continue;
             }
-            for(Edge edge: vertex.getEndingEdges()){
-                Vertex neighbour = edge.getStartpoint();
-                if(!part.getVertices().containsKey(neighbour.getId()) && !included){
-                    borderPart.add(vertex);
-                }
+            int subpart = quotientGraph.merge(merge.first, merge.second);
+            for (Map.Entry<Integer, Double> neighbour : quotientGraph.getNeighbours(subpart).entrySet()) {
+                addMerge(merges, quotientGraph, subpart, neighbour.getKey(), neighbour.getValue(), partValue);
             }
         }
-        return borderPart;
     }
 
     /**
-     * Gets index of part with minimal value.
-     * @param parts     all parts.
-     * @return index of min part.
+     * Adds pair of adjacent subparts to heap of merges unless both subparts are balanced.
+     * @param merges            heap of merges.
+     * @param quotientGraph     quotient graph of connected subparts.
+     * @param first             first subpart.
+     * @param second            second subpart.
+     * @param cutWeight         weight of edges between subparts.
+     * @param partValue         ideal part weight.
      */
-    private Graph getMinPart(List<Graph> parts) {
-        double minValue = Double.MAX_VALUE;
-        Graph minPart = null;
-        for (Graph part : parts) {
-            double value = part.getWeightValue();
-            if (value < minValue) {
-                minValue = value;
-                minPart = part;
-            }
+    private void addMerge(PriorityQueue<Merge> merges, QuotientGraph quotientGraph, int first, int second,
+                          double cutWeight, double partValue) {
+        if (isBalanced(quotientGraph.getWeight(first), partValue) && isBalanced(quotientGraph.getWeight(second), partValue)) {
+            return;
         }
-        return  minPart;
+        double difference = Math.abs(partValue - quotientGraph.getWeight(first) - quotientGraph.getWeight(second));
+        merges.add(new Merge(first, quotientGraph.getVersion(first), second, quotientGraph.getVersion(second),
+                difference, cutWeight));
     }
 
     /**
-     * Gets index of part with maximal value.
-     * @param parts     all parts.
-     * @return index of max part.
+     * Finds out whether weight differs from ideal part weight by less than epsilon.
+     * @param weight        weight of part.
+     * @param partValue     ideal part weight.
+     * @return true if weight is balanced.
      */
-    private Graph getMaxPart(List<Graph> parts) {
-        double maxValue = 0;
-        Graph maxPart = null;
-        for (Graph part : parts) {
-            double value = part.getWeightValue();
-            if (value > maxValue) {
-                maxValue = value;
-                maxPart = part;
-            }
-        }
-        return  maxPart;
+    private boolean isBalanced(double weight, double partValue) {
+        return ((weight - epsilon) < partValue) && (partValue < (weight + epsilon));
     }
 
     /**
-     * Computes connected subgraphs.
-     * @param parts  parts to be computed.
-     * @return list of connected graphs.
+     * Creates partition from part numbers. Vertices without part, which lie in components
+     * of the graph without any starting vertex, are left out of the partition.
+     * @param partOf        part of each vertex, -1 for vertices without part.
+     * @param partsCount    number of parts.
+     * @return created partition.
      */
-    private List<Graph> computeConnectedSubgraphs(List<Graph> parts) {
-        List<Graph> subgraphs = new ArrayList<>();
-        for (Graph part: parts) {
-            List<Vertex> visitedVertices = new ArrayList<>();
-            int i = 0;
-            Vertex[] vertices = new Vertex[part.getVertices().size()];
-            for (Vertex vertex : part.getVertices().values()) {
-                vertices[i] = vertex;
-                i++;
-            }
-            i = 0;
-            while(vertices.length > visitedVertices.size()){
-                for(; i < vertices.length; i++){
-                    if(!visitedVertices.contains(vertices[i])){
-                        break;
-                    }
-                }
-                Graph visitedVerticesPart = bfs(vertices[i], part);
-                subgraphs.add(visitedVerticesPart);
-                visitedVertices.addAll(visitedVerticesPart.getVertices().values());
+    private GraphPartition createPartition(int[] partOf, int partsCount) {
+        boolean covered = true;
+        for (int part : partOf) {
+            covered &= part != -1;
+        }
+        if (covered) {
+            return new GraphPartition(compactGraph, partOf, partsCount);
+        }
+        List<Graph> parts = new ArrayList<>(partsCount);
+        for (int i = 0; i < partsCount; i++) {
+            parts.add(new Graph(new HashMap<>(), null));
+        }
+        for (int v = 0; v < partOf.length; v++) {
+            if (partOf[v] != -1) {
+                Vertex vertex = compactGraph.getVertex(v);
+                parts.get(partOf[v]).getVertices().put(vertex.getId(), vertex);
             }
         }
-        return subgraphs;
+        return new GraphPartition(parts);
     }
 
     /**
-     * Breath-First search used for finding connectivity of one part.
-     * @param s     source vertex.
-     * @param part  part where source vertex belongs.
-     * @return  connected subpart of the part.
+     * Trades vertices between parts so it balances the partition. Vertices on the shortest path
+     * between maximal and minimal part are moved into minimal part, starting next to minimal part,
+     * then vertices of maximal part are moved to the part following it on the path, in breadth-first
+     * order from the path. Each of the two moves shifts about half of the weight difference.
+     * @param weights   weights of parts, moves update part of each vertex.
+     * @param maxPart   maximal part.
+     * @param minPart   minimal part.
+     * @return true if vertices were traded, false if there is no path between the parts.
      */
-    private Graph bfs(Vertex s, Graph part) {
-        Graph visitedVerticesPart = new Graph(new HashMap<>(), null);
-        LinkedList<Vertex> queue = new LinkedList<>();
-        visitedVerticesPart.getVertices().put(s.getId(), s);
-        queue.add(s);
-        ListIterator<Edge> i;
-        while (queue.size() != 0) {
-            s = queue.poll();
-            for (i = s.getStartingEdges().listIterator(); i.hasNext();) {
-                Vertex v = i.next().getEndpoint();
-                if (!visitedVerticesPart.getVertices().containsValue(v) && part.getVertices().containsValue(v)) {
-                    queue.add(v);
-                    visitedVerticesPart.getVertices().put(v.getId(), v);
-                }
+    private boolean trade(PartWeightTracker weights, int maxPart, int minPart) {
+        double difference = (weights.getWeight(maxPart) - weights.getWeight(minPart))/2;
+        int[] path = findShortestPathBetweenParts(weights, maxPart, minPart);
+        if (path == null) {
+            return false;
+        }
+        double moved = 0.0;
+        for (int i = path.length - 2; i > 0 && moved < difference; i--) {
+            moved += compactGraph.getVertexWeight(path[i]);
+            moveVertex(weights, path[i], minPart);
+        }
+        int newPart = weights.getPart(path[1]) == -1 ? minPart : weights.getPart(path[1]);
+        double targetWeight = weights.getWeight(maxPart) - difference;
+        int queueEnd = moveVertexOut(weights, path[0], maxPart, newPart, 0);
+        for (int i = 0; i < queueEnd && weights.getWeight(maxPart) > targetWeight; i++) {
+            int v = queue[i];
+            for (int arc = compactGraph.getOutStart(v); arc < compactGraph.getOutEnd(v)
+                    && weights.getWeight(maxPart) > targetWeight; arc++) {
+                queueEnd = moveVertexOut(weights, compactGraph.getOutTarget(arc), maxPart, newPart, queueEnd);
             }
-            for (i = s.getEndingEdges().listIterator(); i.hasNext();) {
-                Vertex v = i.next().getStartpoint();
-                if (!visitedVerticesPart.getVertices().containsValue(v) && part.getVertices().containsValue(v)) {
-                    queue.add(v);
-                    visitedVerticesPart.getVertices().put(v.getId(), v);
-                }
+            for (int arc = compactGraph.getInStart(v); arc < compactGraph.getInEnd(v)
+                    && weights.getWeight(maxPart) > targetWeight; arc++) {
+                queueEnd = moveVertexOut(weights, compactGraph.getInSource(arc), maxPart, newPart, queueEnd);
             }
         }
-        return visitedVerticesPart;
+        return true;
     }
 
     /**
-     * Finds if array is zero vector.
-     * @param stop      array.
-     * @return true if zero.
+     * Moves vertex out of maximal part and appends it to queue of moved vertices.
+     * @param weights   weights of parts.
+     * @param v         dense vertex index.
+     * @param maxPart   maximal part.
+     * @param newPart   part receiving the vertex.
+     * @param queueEnd  number of vertices in queue of moved vertices.
+     * @return number of vertices in queue after the move.
      */
-    private boolean isZero(int[] stop) {
-        for (int j: stop) {
-            if (j != 0) {
-                return false;
-            }
+    private int moveVertexOut(PartWeightTracker weights, int v, int maxPart, int newPart, int queueEnd) {
+        if (weights.getPart(v) != maxPart) {
+            return queueEnd;
         }
-        return true;
+        moveVertex(weights, v, newPart);
+        queue[queueEnd] = v;
+        return queueEnd + 1;
     }
 
     /**
-     * Grows given part with index i.
-     * @param i                 index i.
-     * @param part              growing part.
-     * @param verticesParts     vertices partition
-     * @return  true if success.
+     * Moves vertex to another part and keeps lists of vertices of parts up to date.
+     * @param weights   weights of parts.
+     * @param v         dense vertex index.
+     * @param part      new part of vertex.
      */
-    private boolean grow(int i, Graph part, Map<Vertex, Integer> verticesParts) {
-        int maxVertexID = -1;
-        double maxValue = 0;
-        boolean hasGrown = false;
-        for (Vertex vertex: part.getVertices().values()) {
-            Map<Integer, Double> neighbours = getVertexFreeNeighbours(vertex, verticesParts);
-            for (Map.Entry<Integer, Double> neighbour: neighbours.entrySet()) {
-                double value = Math.abs(neighbour.getValue());
-                if(value >= maxValue){
-                    maxVertexID = neighbour.getKey();
-                    maxValue = value;
-                    hasGrown = true;
-                }
-            }
-        }
-        if(hasGrown){
-            Vertex maxVertex = getGraph().getVertices().get(maxVertexID);
-            part.getVertices().put(maxVertexID, maxVertex);
-            verticesParts.put(maxVertex, i);
-        }
-        return hasGrown;
+    private void moveVertex(PartWeightTracker weights, int v, int part) {
+        partVertices.move(v, weights.getPart(v), part);
+        weights.moveVertex(v, part);
     }
 
     /**
-     * Gets all vertex's neighbours.
-     * @param vertex the vertex.
-     * @return all vertex's neighbours.
+     * Finds the shortest path between maximal and minimal part by one search started
+     * from all border vertices of maximal part, it stops at the nearest border vertex of minimal part.
+     * Path may go through other parts, it cannot go through inner vertices of the parts.
+     * Border vertices are collected only from vertices of the two parts into buffers
+     * allocated once per balancing.
+     * @param weights   weights of parts.
+     * @param maxPart   max part.
+     * @param minPart   min part.
+     * @return dense vertex indices of the path from border vertex of maximal part to border vertex
+     *         of minimal part or null if there is no path.
      */
-    private Map<Vertex, Double> getAllVertexNeighbours(Vertex vertex){
-        Map<Vertex, Double> neighbours = new HashMap<>();
-        for (Edge edge: vertex.getStartingEdges()) {
-            Vertex v = edge.getEndpoint();
-            neighbours.put(v, edge.getWeight());
-        }
-        for (Edge edge: vertex.getEndingEdges()) {
-            Vertex neighbour = edge.getStartpoint();
-            if (neighbours.containsKey(neighbour)) {
-                neighbours.put(neighbour, neighbours.get(neighbour) + edge.getWeight());
-            }
-            else {
-                neighbours.put(neighbour, edge.getWeight());
-            }
-        }
-        return neighbours;
+    private int[] findShortestPathBetweenParts(PartWeightTracker weights, int maxPart, int minPart) {
+        int sourcesCount = collectBorderVertices(weights, maxPart, sources);
+        int targetsCount = collectBorderVertices(weights, minPart, targets);
+        for (int i = 0; i < targetsCount; i++) {
+            minBorder[targets[i]] = true;
+        }
+        IntPredicate passable = v -> weights.getPart(v) != maxPart && (weights.getPart(v) != minPart || minBorder[v]);
+        int target = pathSearch.search(sources, sourcesCount, passable, v -> minBorder[v]);
+        for (int i = 0; i < targetsCount; i++) {
+            minBorder[targets[i]] = false;
+        }
+        return target == -1 ? null : pathSearch.getPath(target);
     }
 
     /**
-     * Gets vertex's free neighbours.
-     * @param vertex            the vertex.
-     * @param verticesParts     vertices partition.
-     * @return vertex's free neighbours.
+     * Collects border vertices of part in ascending order of dense indices.
+     * @param weights   weights of parts.
+     * @param part      part number.
+     * @param border    buffer for border vertices.
+     * @return number of border vertices.
      */
-    private Map<Integer, Double> getVertexFreeNeighbours(Vertex vertex, Map<Vertex, Integer> verticesParts) {
-        Map<Integer, Double> neighbours = new HashMap<>();
-        for (Edge edge: vertex.getStartingEdges()) {
-            Vertex neighbour = edge.getEndpoint();
-            if(!verticesParts.containsKey(neighbour)){
-                neighbours.put(neighbour.getId(), edge.getWeight());
+    private int collectBorderVertices(PartWeightTracker weights, int part, int[] border) {
+        int count = 0;
+        for (int i = 0; i < partVertices.getCount(part); i++) {
+            int v = partVertices.getVertex(part, i);
+            if (isBorderVertex(weights, v)) {
+                border[count++] = v;
             }
         }
-        for (Edge edge: vertex.getEndingEdges()) {
-            Vertex neighbour = edge.getStartpoint();
-            if(!verticesParts.containsKey(neighbour)){
-                if(neighbours.containsKey(neighbour.getId())){
-                    neighbours.put(neighbour.getId(), neighbours.get(neighbour.getId()) + edge.getWeight());
-                }else{
-                    neighbours.put(neighbour.getId(), edge.getWeight());
-                }
-            }
-        }
-        return neighbours;
+        Arrays.sort(border, 0, count);
+        return count;
     }
 
     /**
-     * Gets the best candidate for starting vertex.
-     * @param verticesParts     vertices partition.
-     * @return  the best candidate for starting vertex.
+     * Finds out whether vertex has a neighbour in another part.
+     * @param weights   weights of parts.
+     * @param v         dense vertex index.
+     * @return true if vertex is on border of its part.
      */
-    private Vertex getBestCandidateVertex(Map<Vertex, Integer> verticesParts) {
-        int maxDegree = 0;
-        Vertex bestVertex = null;
-        for(Vertex vertex: getGraph().getVertices().values()){
-            if(((vertex.getStartingEdges().size() + vertex.getEndingEdges().size()) > maxDegree) && (!verticesParts.containsKey(vertex))){
-                maxDegree = vertex.getStartingEdges().size() + vertex.getEndingEdges().size();
-                bestVertex = vertex;
+    private boolean isBorderVertex(PartWeightTracker weights, int v) {
+        int part = weights.getPart(v);
+        for (int arc = compactGraph.getOutStart(v); arc < compactGraph.getOutEnd(v); arc++) {
+            if (weights.getPart(compactGraph.getOutTarget(arc)) != part) {
+                return true;
+            }
+        }
+        for (int arc = compactGraph.getInStart(v); arc < compactGraph.getInEnd(v); arc++) {
+            if (weights.getPart(compactGraph.getInSource(arc)) != part) {
+                return true;
             }
         }
-        return bestVertex;
+        return false;
     }
 
 }
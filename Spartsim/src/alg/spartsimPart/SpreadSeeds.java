@@ -0,0 +1,155 @@
+package alg.spartsimPart;
+
+import bp.roadnetworkpartitioning.CompactGraph;
+import bp.roadnetworkpartitioning.IndexSort;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of selection of starting vertices spread over the graph.
+ * Graph area is recursively divided by lines orthogonal to its longer side into regions
+ * of equal weight, one for each part, and the vertex nearest to weighted centroid of region
+ * is its starting vertex. Vertices are sorted by both coordinates once, each division
+ * keeps both orders of region by stable partitioning, so all divisions cost O(n log k).
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public class SpreadSeeds {
+    /** Graph whose vertices are selected. */
+    private final CompactGraph graph;
+    /** Flag of vertices in the first region of the current division. */
+    private final boolean[] first;
+    /** Buffer for stable partitioning. */
+    private final int[] buffer;
+
+    /**
+     * Constructor of selection.
+     * @param graph     graph whose vertices are selected.
+     */
+    public SpreadSeeds(CompactGraph graph) {
+        this.graph = graph;
+        this.first = new boolean[graph.getVertexCount()];
+        this.buffer = new int[graph.getVertexCount()];
+    }
+
+    /**
+     * Selects starting vertices.
+     * @param count     number of starting vertices.
+     * @return dense indices of starting vertices, -1 where there is no vertex left.
+     */
+    public int[] select(int count) {
+        int n = graph.getVertexCount();
+        int[] seeds = new int[count];
+        Arrays.fill(seeds, -1);
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int v = 0; v < n; v++) {
+            xs[v] = graph.getX(v);
+            ys[v] = graph.getY(v);
+        }
+        divide(IndexSort.sort(xs), IndexSort.sort(ys), 0, n, 0, count, seeds);
+        return seeds;
+    }
+
+    /**
+     * Divides region into regions for given parts.
+     * @param xOrder        vertices ordered by x-coordinate, positions from..to-1 hold the region.
+     * @param yOrder        vertices ordered by y-coordinate, positions from..to-1 hold the region.
+     * @param from          first position of region.
+     * @param to            position after last position of region.
+     * @param firstPart     number of the first part of region.
+     * @param parts         number of parts of region.
+     * @param seeds         starting vertex of each part.
+     */
+    private void divide(int[] xOrder, int[] yOrder, int from, int to, int firstPart, int parts, int[] seeds) {
+        if (from == to) {
+            return;
+        }
+        if (parts == 1) {
+            seeds[firstPart] = getCentralVertex(xOrder, from, to);
+            return;
+        }
+        double width = graph.getX(xOrder[to - 1]) - graph.getX(xOrder[from]);
+        double height = graph.getY(yOrder[to - 1]) - graph.getY(yOrder[from]);
+        int[] primary = width >= height ? xOrder : yOrder;
+        int[] secondary = width >= height ? yOrder : xOrder;
+        int firstParts = parts / 2;
+        double total = 0;
+        for (int i = from; i < to; i++) {
+            total += graph.getVertexWeight(primary[i]);
+        }
+        int split = from;
+        if (total > 0) {
+            double target = total * firstParts / parts;
+            double weight = 0;
+            while (split < to && weight + graph.getVertexWeight(primary[split]) / 2 < target) {
+                weight += graph.getVertexWeight(primary[split]);
+                split++;
+            }
+        } else {
+            split = from + (int) ((long) (to - from) * firstParts / parts);
+        }
+        if (to - from >= parts) {
+            split = Math.max(from + firstParts, Math.min(to - (parts - firstParts), split));
+        }
+        for (int i = from; i < to; i++) {
+            first[primary[i]] = i < split;
+        }
+        int firstEnd = from;
+        int secondEnd = 0;
+        for (int i = from; i < to; i++) {
+            int v = secondary[i];
+            if (first[v]) {
+                secondary[firstEnd++] = v;
+            } else {
+                buffer[secondEnd++] = v;
+            }
+        }
+        System.arraycopy(buffer, 0, secondary, firstEnd, secondEnd);
+        divide(xOrder, yOrder, from, split, firstPart, firstParts, seeds);
+        divide(xOrder, yOrder, split, to, firstPart + firstParts, parts - firstParts, seeds);
+    }
+
+    /**
+     * Gets vertex nearest to weighted centroid of region, ties are resolved by order of region.
+     * @param order     vertices of region.
+     * @param from      first position of region.
+     * @param to        position after last position of region.
+     * @return dense vertex index.
+     */
+    private int getCentralVertex(int[] order, int from, int to) {
+        double total = 0;
+        double x = 0;
+        double y = 0;
+        for (int i = from; i < to; i++) {
+            int v = order[i];
+            double weight = graph.getVertexWeight(v);
+            total += weight;
+            x += weight * graph.getX(v);
+            y += weight * graph.getY(v);
+        }
+        if (total > 0) {
+            x /= total;
+            y /= total;
+        } else {
+            x = 0;
+            y = 0;
+            for (int i = from; i < to; i++) {
+                x += graph.getX(order[i]) / (to - from);
+                y += graph.getY(order[i]) / (to - from);
+            }
+        }
+        int best = order[from];
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            int v = order[i];
+            double dx = graph.getX(v) - x;
+            double dy = graph.getY(v) - y;
+            if (dx * dx + dy * dy < bestDistance) {
+                bestDistance = dx * dx + dy * dy;
+                best = v;
+            }
+        }
+        return best;
+    }
+}
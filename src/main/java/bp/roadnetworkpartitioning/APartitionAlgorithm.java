@@ -15,6 +15,8 @@ public abstract class APartitionAlgorithm {
     private Map<String, String> parametersDescription = null;
     /** Graph to be divided. */
     private Graph graph = null;
+    /** Compact form of graph to be divided, created on demand. */
+    private CompactGraph compactGraph = null;
     /** Number of parts. */
     private int partsCount = 2;
     /** Resulting instance of partition algorithm. */
@@ -112,6 +114,7 @@ public abstract class APartitionAlgorithm {
      */
     public final void setGraph(Graph graph){
         this.graph = graph;
+        this.compactGraph = null;
     }
 
     /**
@@ -122,6 +125,31 @@ public abstract class APartitionAlgorithm {
         return this.graph;
     }
 
+    /**
+     * Gets compact form of graph to be divided.
+     * It is created once for each graph to be divided.
+     * @return compact form of graph or null if there is no graph.
+     */
+    public final CompactGraph getCompactGraph(){
+        if (this.compactGraph == null && this.graph != null) {
+            this.compactGraph = new CompactGraph(this.graph);
+        }
+        return this.compactGraph;
+    }
+
+    /**
+     * Divides graph to be divided into required number of parts by recursive bisection.
+     * Algorithms that can bisect a graph may use it in {@link #createGraphPartition()}.
+     * @param bisector  bisection algorithm.
+     * @param seed      seed of the first bisection.
+     * @return partition of divided graph.
+     */
+    protected final GraphPartition partitionByBisection(GraphBisector bisector, long seed){
+        CompactGraph compactGraph = getCompactGraph();
+        int[] partOf = RecursiveBisection.partition(compactGraph, getPartsCount(), bisector, seed);
+        return new GraphPartition(compactGraph, partOf, Math.max(1, getPartsCount()));
+    }
+
     /**
      * Sets number of parts a graph to be divided.
      * @param partsCount    number of parts a graph to be divided.
@@ -0,0 +1,437 @@
+package bp.roadnetworkpartitioning;
+
+import java.util.Arrays;
+
+/**
+ * Instance of this class represents immutable compact (compressed sparse row) form of a graph.
+ * Vertices are addressed by dense indices 0..n-1 and edges (arcs) by dense indices 0..m-1.
+ * Out-adjacency of vertex v are arcs getOutStart(v) .. getOutEnd(v) - 1,
+ * in-adjacency of vertex v are arcs getInStart(v) .. getInEnd(v) - 1.
+ * Only edges with both ends inside the graph are stored.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public final class CompactGraph {
+
+    /** Original vertices, index of array is dense vertex index. */
+    private final Vertex[] vertices;
+    /** Mapping of original vertex ID to dense vertex index. */
+    private final VertexIdMap idMap;
+    /** X-coordinates of vertices. */
+    private final double[] x;
+    /** Y-coordinates of vertices. */
+    private final double[] y;
+    /** Values of vertices. */
+    private final double[] vertexValues;
+    /**
+     * Weights of vertices. Weight is vertex value plus half of weight of each
+     * starting and ending edge, so that sum of weights is equal to {@link Graph#getWeightValue()}.
+     */
+    private final double[] vertexWeights;
+    /** Total weight of all vertices. */
+    private final double totalWeight;
+
+    /** Offsets of out-adjacency, length n + 1. */
+    private final int[] outOffsets;
+    /** Endpoints of arcs in out-adjacency. */
+    private final int[] outTargets;
+    /** Weights of arcs in out-adjacency. */
+    private final double[] outWeights;
+    /** Lengths of arcs in out-adjacency. */
+    private final double[] outLengths;
+    /** Capacities of arcs in out-adjacency. */
+    private final double[] outCapacities;
+
+    /** Offsets of in-adjacency, length n + 1. */
+    private final int[] inOffsets;
+    /** Startpoints of arcs in in-adjacency. */
+    private final int[] inSources;
+    /** Weights of arcs in in-adjacency. */
+    private final double[] inWeights;
+    /** Lengths of arcs in in-adjacency. */
+    private final double[] inLengths;
+    /** Capacities of arcs in in-adjacency. */
+    private final double[] inCapacities;
+
+    /**
+     * Constructor of compact graph built from given graph.
+     * @param graph     graph to be compacted.
+     */
+    public CompactGraph(Graph graph) {
+        this.idMap = graph.getVertexIdMap();
+        int n = idMap.size();
+        this.vertices = new Vertex[n];
+        this.x = new double[n];
+        this.y = new double[n];
+        this.vertexValues = new double[n];
+        this.vertexWeights = new double[n];
+        double total = 0;
+        for (int index = 0; index < n; index++) {
+            Vertex vertex = graph.getVertices().get(idMap.getId(index));
+            vertices[index] = vertex;
+            x[index] = vertex.getXCoordinate();
+            y[index] = vertex.getYCoordinate();
+            vertexValues[index] = vertex.getValue();
+            double weight = vertex.getValue();
+            for (Edge edge : vertex.getStartingEdges()) {
+                weight += edge.getWeight() / 2;
+            }
+            for (Edge edge : vertex.getEndingEdges()) {
+                weight += edge.getWeight() / 2;
+            }
+            vertexWeights[index] = weight;
+            total += weight;
+        }
+        this.totalWeight = total;
+
+        this.outOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int degree = 0;
+            for (Edge edge : vertices[v].getStartingEdges()) {
+                if (idMap.getIndex(edge.getEndpoint().getId()) >= 0) {
+                    degree++;
+                }
+            }
+            outOffsets[v + 1] = outOffsets[v] + degree;
+        }
+        int m = outOffsets[n];
+        this.outTargets = new int[m];
+        this.outWeights = new double[m];
+        this.outLengths = new double[m];
+        this.outCapacities = new double[m];
+        int[] inDegrees = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int arc = outOffsets[v];
+            for (Edge edge : vertices[v].getStartingEdges()) {
+                int target = idMap.getIndex(edge.getEndpoint().getId());
+                if (target >= 0) {
+                    outTargets[arc] = target;
+                    outWeights[arc] = edge.getWeight();
+                    outLengths[arc] = edge.getLength();
+                    outCapacities[arc] = edge.getCapacity();
+                    inDegrees[target + 1]++;
+                    arc++;
+                }
+            }
+        }
+
+        this.inOffsets = inDegrees;
+        for (int v = 0; v < n; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        this.inSources = new int[m];
+        this.inWeights = new double[m];
+        this.inLengths = new double[m];
+        this.inCapacities = new double[m];
+        int[] positions = new int[n];
+        System.arraycopy(inOffsets, 0, positions, 0, n);
+        for (int v = 0; v < n; v++) {
+            for (int arc = outOffsets[v]; arc < outOffsets[v + 1]; arc++) {
+                int position = positions[outTargets[arc]]++;
+                inSources[position] = v;
+                inWeights[position] = outWeights[arc];
+                inLengths[position] = outLengths[arc];
+                inCapacities[position] = outCapacities[arc];
+            }
+        }
+    }
+
+    /**
+     * Constructor of subgraph induced by given vertices of parent graph.
+     * Vertices keep their weights from parent graph.
+     * @param parent        parent compact graph.
+     * @param subVertices   dense vertex indices of parent graph in ascending order.
+     */
+    private CompactGraph(CompactGraph parent, int[] subVertices) {
+        int n = subVertices.length;
+        int[] local = new int[parent.getVertexCount()];
+        Arrays.fill(local, -1);
+        int[] ids = new int[n];
+        this.vertices = new Vertex[n];
+        this.x = new double[n];
+        this.y = new double[n];
+        this.vertexValues = new double[n];
+        this.vertexWeights = new double[n];
+        double total = 0;
+        for (int v = 0; v < n; v++) {
+            int p = subVertices[v];
+            local[p] = v;
+            ids[v] = parent.idMap.getId(p);
+            vertices[v] = parent.vertices[p];
+            x[v] = parent.x[p];
+            y[v] = parent.y[p];
+            vertexValues[v] = parent.vertexValues[p];
+            vertexWeights[v] = parent.vertexWeights[p];
+            total += vertexWeights[v];
+        }
+        this.idMap = new VertexIdMap(ids);
+        this.totalWeight = total;
+
+        this.outOffsets = new int[n + 1];
+        this.inOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int p = subVertices[v];
+            int outDegree = 0;
+            for (int arc = parent.outOffsets[p]; arc < parent.outOffsets[p + 1]; arc++) {
+                if (local[parent.outTargets[arc]] >= 0) {
+                    outDegree++;
+                }
+            }
+            int inDegree = 0;
+            for (int arc = parent.inOffsets[p]; arc < parent.inOffsets[p + 1]; arc++) {
+                if (local[parent.inSources[arc]] >= 0) {
+                    inDegree++;
+                }
+            }
+            outOffsets[v + 1] = outOffsets[v] + outDegree;
+            inOffsets[v + 1] = inOffsets[v] + inDegree;
+        }
+        int m = outOffsets[n];
+        this.outTargets = new int[m];
+        this.outWeights = new double[m];
+        this.outLengths = new double[m];
+        this.outCapacities = new double[m];
+        this.inSources = new int[m];
+        this.inWeights = new double[m];
+        this.inLengths = new double[m];
+        this.inCapacities = new double[m];
+        for (int v = 0; v < n; v++) {
+            int p = subVertices[v];
+            int outArc = outOffsets[v];
+            for (int arc = parent.outOffsets[p]; arc < parent.outOffsets[p + 1]; arc++) {
+                int target = local[parent.outTargets[arc]];
+                if (target >= 0) {
+                    outTargets[outArc] = target;
+                    outWeights[outArc] = parent.outWeights[arc];
+                    outLengths[outArc] = parent.outLengths[arc];
+                    outCapacities[outArc] = parent.outCapacities[arc];
+                    outArc++;
+                }
+            }
+            int inArc = inOffsets[v];
+            for (int arc = parent.inOffsets[p]; arc < parent.inOffsets[p + 1]; arc++) {
+                int source = local[parent.inSources[arc]];
+                if (source >= 0) {
+                    inSources[inArc] = source;
+                    inWeights[inArc] = parent.inWeights[arc];
+                    inLengths[inArc] = parent.inLengths[arc];
+                    inCapacities[inArc] = parent.inCapacities[arc];
+                    inArc++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates subgraph induced by given vertices. Vertices keep their weights,
+     * so total weight of subgraph is weight of the vertices in this graph.
+     * @param subVertices   dense vertex indices of this graph in ascending order.
+     * @return induced subgraph, vertex i of subgraph is vertex subVertices[i] of this graph.
+     */
+    public CompactGraph subgraph(int[] subVertices) {
+        return new CompactGraph(this, subVertices);
+    }
+
+    /**
+     * Gets number of vertices.
+     * @return number of vertices.
+     */
+    public int getVertexCount() {
+        return vertices.length;
+    }
+
+    /**
+     * Gets number of edges (arcs).
+     * @return number of edges.
+     */
+    public int getEdgeCount() {
+        return outTargets.length;
+    }
+
+    /**
+     * Gets original vertex with given dense index.
+     * @param v     dense vertex index.
+     * @return original vertex.
+     */
+    public Vertex getVertex(int v) {
+        return vertices[v];
+    }
+
+    /**
+     * Gets dense index of vertex with given ID.
+     * @param id    ID of original vertex.
+     * @return dense vertex index or -1 if vertex is not part of the graph.
+     */
+    public int getIndex(int id) {
+        return idMap.getIndex(id);
+    }
+
+    /**
+     * Gets mapping of original vertex IDs to dense vertex indices.
+     * @return mapping of vertex IDs.
+     */
+    public VertexIdMap getVertexIdMap() {
+        return idMap;
+    }
+
+    /**
+     * Gets X-coordinate of vertex.
+     * @param v     dense vertex index.
+     * @return x-coordinate.
+     */
+    public double getX(int v) {
+        return x[v];
+    }
+
+    /**
+     * Gets Y-coordinate of vertex.
+     * @param v     dense vertex index.
+     * @return y-coordinate.
+     */
+    public double getY(int v) {
+        return y[v];
+    }
+
+    /**
+     * Gets value of vertex.
+     * @param v     dense vertex index.
+     * @return value of vertex.
+     */
+    public double getVertexValue(int v) {
+        return vertexValues[v];
+    }
+
+    /**
+     * Gets weight of vertex (vertex value plus half of weight of all its edges).
+     * @param v     dense vertex index.
+     * @return weight of vertex.
+     */
+    public double getVertexWeight(int v) {
+        return vertexWeights[v];
+    }
+
+    /**
+     * Gets total weight of the graph, same as {@link Graph#getWeightValue()}.
+     * @return total weight of the graph.
+     */
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * Gets number of edges starting or ending in vertex.
+     * @param v     dense vertex index.
+     * @return degree of vertex.
+     */
+    public int getDegree(int v) {
+        return (outOffsets[v + 1] - outOffsets[v]) + (inOffsets[v + 1] - inOffsets[v]);
+    }
+
+    /**
+     * Gets index of first arc starting from vertex.
+     * @param v     dense vertex index.
+     * @return index of first out-arc.
+     */
+    public int getOutStart(int v) {
+        return outOffsets[v];
+    }
+
+    /**
+     * Gets index after last arc starting from vertex.
+     * @param v     dense vertex index.
+     * @return index after last out-arc.
+     */
+    public int getOutEnd(int v) {
+        return outOffsets[v + 1];
+    }
+
+    /**
+     * Gets endpoint of out-arc.
+     * @param arc   index of out-arc.
+     * @return dense index of endpoint.
+     */
+    public int getOutTarget(int arc) {
+        return outTargets[arc];
+    }
+
+    /**
+     * Gets weight of out-arc.
+     * @param arc   index of out-arc.
+     * @return weight of edge.
+     */
+    public double getOutWeight(int arc) {
+        return outWeights[arc];
+    }
+
+    /**
+     * Gets length of out-arc.
+     * @param arc   index of out-arc.
+     * @return length of edge.
+     */
+    public double getOutLength(int arc) {
+        return outLengths[arc];
+    }
+
+    /**
+     * Gets capacity of out-arc.
+     * @param arc   index of out-arc.
+     * @return capacity of edge.
+     */
+    public double getOutCapacity(int arc) {
+        return outCapacities[arc];
+    }
+
+    /**
+     * Gets index of first arc ending in vertex.
+     * @param v     dense vertex index.
+     * @return index of first in-arc.
+     */
+    public int getInStart(int v) {
+        return inOffsets[v];
+    }
+
+    /**
+     * Gets index after last arc ending in vertex.
+     * @param v     dense vertex index.
+     * @return index after last in-arc.
+     */
+    public int getInEnd(int v) {
+        return inOffsets[v + 1];
+    }
+
+    /**
+     * Gets startpoint of in-arc.
+     * @param arc   index of in-arc.
+     * @return dense index of startpoint.
+     */
+    public int getInSource(int arc) {
+        return inSources[arc];
+    }
+
+    /**
+     * Gets weight of in-arc.
+     * @param arc   index of in-arc.
+     * @return weight of edge.
+     */
+    public double getInWeight(int arc) {
+        return inWeights[arc];
+    }
+
+    /**
+     * Gets length of in-arc.
+     * @param arc   index of in-arc.
+     * @return length of edge.
+     */
+    public double getInLength(int arc) {
+        return inLengths[arc];
+    }
+
+    /**
+     * Gets capacity of in-arc.
+     * @param arc   index of in-arc.
+     * @return capacity of edge.
+     */
+    public double getInCapacity(int arc) {
+        return inCapacities[arc];
+    }
+}
@@ -0,0 +1,154 @@
+package bp.roadnetworkpartitioning;
+
+import java.util.Arrays;
+
+/**
+ * Instance of this class holds connected components of a graph or of parts of a partition.
+ * Components are found by union-find over edges of compact graph with union by size and
+ * path halving, so the computation is nearly linear in number of edges. When parts are given,
+ * only edges inside a part are followed, so each component lies in one part.
+ * Edges are treated as undirected. Components are numbered in order of their first dense vertex index.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public final class ConnectedComponents {
+
+    /** Component of each vertex, -1 for vertices without part. */
+    private final int[] componentOf;
+    /** Number of vertices of each component. */
+    private final int[] sizes;
+
+    /**
+     * Computes connected components of the whole graph.
+     * @param compactGraph  compact form of the graph.
+     */
+    public ConnectedComponents(CompactGraph compactGraph) {
+        this(compactGraph, null);
+    }
+
+    /**
+     * Computes connected components of each part.
+     * @param compactGraph  compact form of partitioned graph.
+     * @param partOf        part number of each vertex, -1 for vertices without part,
+     *                      null if the whole graph is examined.
+     */
+    public ConnectedComponents(CompactGraph compactGraph, int[] partOf) {
+        int n = compactGraph.getVertexCount();
+        int[] parent = new int[n];
+        int[] rootSizes = new int[n];
+        for (int v = 0; v < n; v++) {
+            parent[v] = v;
+            rootSizes[v] = 1;
+        }
+        for (int v = 0; v < n; v++) {
+            if (partOf != null && partOf[v] == -1) {
+                continue;
+            }
+            for (int arc = compactGraph.getOutStart(v); arc < compactGraph.getOutEnd(v); arc++) {
+                int u = compactGraph.getOutTarget(arc);
+                if (partOf == null || partOf[u] == partOf[v]) {
+                    union(parent, rootSizes, u, v);
+                }
+            }
+        }
+        this.componentOf = new int[n];
+        int[] numbers = new int[n];
+        Arrays.fill(numbers, -1);
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            if (partOf != null && partOf[v] == -1) {
+                componentOf[v] = -1;
+                continue;
+            }
+            int root = find(parent, v);
+            if (numbers[root] == -1) {
+                numbers[root] = count++;
+            }
+            componentOf[v] = numbers[root];
+        }
+        this.sizes = new int[count];
+        for (int component : componentOf) {
+            if (component != -1) {
+                sizes[component]++;
+            }
+        }
+    }
+
+    /**
+     * Gets number of components.
+     * @return number of components.
+     */
+    public int getCount() {
+        return sizes.length;
+    }
+
+    /**
+     * Finds out whether the examined graph or part forms at most one component.
+     * @return true if there is at most one component.
+     */
+    public boolean isConnected() {
+        return sizes.length <= 1;
+    }
+
+    /**
+     * Gets component of vertex.
+     * @param v     dense vertex index.
+     * @return component number, -1 for vertex without part.
+     */
+    public int getComponent(int v) {
+        return componentOf[v];
+    }
+
+    /**
+     * Gets component of each vertex. Returned array must not be modified.
+     * @return component number of each vertex, -1 for vertices without part.
+     */
+    public int[] getComponentOf() {
+        return componentOf;
+    }
+
+    /**
+     * Gets number of vertices of component.
+     * @param component     component number.
+     * @return number of vertices.
+     */
+    public int getSize(int component) {
+        return sizes[component];
+    }
+
+    /**
+     * Finds root of vertex tree, path is halved on the way.
+     * @param parent    parent of each vertex.
+     * @param v         dense vertex index.
+     * @return root of the tree.
+     */
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /**
+     * Joins trees of two vertices, smaller tree is attached under the root of the larger one.
+     * @param parent        parent of each vertex.
+     * @param rootSizes     number of vertices in tree of each root.
+     * @param u             first dense vertex index.
+     * @param v             second dense vertex index.
+     */
+    private static void union(int[] parent, int[] rootSizes, int u, int v) {
+        int rootU = find(parent, u);
+        int rootV = find(parent, v);
+        if (rootU == rootV) {
+            return;
+        }
+        if (rootSizes[rootU] < rootSizes[rootV]) {
+            int swap = rootU;
+            rootU = rootV;
+            rootV = swap;
+        }
+        parent[rootV] = rootU;
+        rootSizes[rootU] += rootSizes[rootV];
+    }
+}
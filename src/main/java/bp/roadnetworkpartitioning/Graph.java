@@ -19,6 +19,8 @@ public class Graph {
     private Map<Integer, Vertex> vertices;
     /** Map with all edges of the graph. */
     private Map<Integer, Edge> edges;
+    /** Mapping of vertex IDs to dense indices 0..n-1. */
+    private VertexIdMap vertexIdMap = null;
 
     /* Data to restore XML information */
     /* XML properties */
@@ -79,7 +81,9 @@ public class Graph {
             id = addEdge(vertices.get(i), edges,
                     (i - numVerticesHorizontally) > 0, vertices.get(i - numVerticesHorizontally), id, length);
         }
-        return new Graph(vertices, edges);
+        Graph graph = new Graph(vertices, edges);
+        graph.createVertexIdMap();
+        return graph;
     }
 
     public void set_xml_properties(
@@ -122,6 +126,46 @@ public class Graph {
      */
     public void setVertices(Map<Integer, Vertex> vertices){
         this.vertices = vertices;
+        this.vertexIdMap = null;
+    }
+
+    /**
+     * Assigns dense indices 0..n-1 to all vertices of the graph.
+     * It should be called once vertices are loaded.
+     * @return mapping of vertex IDs to dense indices.
+     */
+    public VertexIdMap createVertexIdMap(){
+        this.vertexIdMap = new VertexIdMap(vertices.keySet());
+        return this.vertexIdMap;
+    }
+
+    /**
+     * Gets mapping of vertex IDs to dense indices 0..n-1.
+     * Mapping is created again if vertices of the graph are no longer the mapped ones.
+     * @return mapping of vertex IDs to dense indices.
+     */
+    public VertexIdMap getVertexIdMap(){
+        if (!isVertexIdMapValid()) {
+            return createVertexIdMap();
+        }
+        return this.vertexIdMap;
+    }
+
+    /**
+     * Checks that mapping of vertex IDs covers exactly current vertices of the graph.
+     * IDs are unique, so the same count and presence of each mapped ID is enough.
+     * @return true if mapping can be used.
+     */
+    private boolean isVertexIdMapValid(){
+        if (this.vertexIdMap == null || this.vertexIdMap.size() != vertices.size()) {
+            return false;
+        }
+        for (int index = 0; index < this.vertexIdMap.size(); index++) {
+            if (!vertices.containsKey(this.vertexIdMap.getId(index))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -132,6 +176,14 @@ public class Graph {
         this.edges = edges;
     }
 
+    /**
+     * Computes connected components of the graph, edges are treated as undirected.
+     * @return connected components of the graph.
+     */
+    public ConnectedComponents getConnectedComponents(){
+        return new ConnectedComponents(new CompactGraph(this));
+    }
+
     /**
      * Gets graph value counting on edge weight.
      * @return  graph weight value.
@@ -0,0 +1,20 @@
+package bp.roadnetworkpartitioning;
+
+/**
+ * Interface of algorithm dividing graph into two parts.
+ * Algorithm implementing it can divide graph into any number of parts by {@link RecursiveBisection}.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public interface GraphBisector {
+
+    /**
+     * Divides graph into two parts.
+     * Implementation must be thread-safe, subgraphs are bisected concurrently.
+     * @param graph     graph to be divided.
+     * @param fraction  target fraction of graph weight in part 0.
+     * @param seed      seed for random decisions of the bisection.
+     * @return part (0 or 1) of each vertex, index of array is dense vertex index.
+     */
+    int[] bisect(CompactGraph graph, double fraction, long seed);
+}
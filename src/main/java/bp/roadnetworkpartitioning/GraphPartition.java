@@ -1,33 +1,40 @@
 package bp.roadnetworkpartitioning;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Instance of this class represents partition of a graph.
+ * Partition is stored as array with part number for each dense vertex index,
+ * graph parts (components) are created from it on demand.
  * @author Lucie Roy
- * @version 24-01-2024
+ * @version 18-10-2026
  */
 public class GraphPartition {
-    /** List of graph parts (components). */
-    private final List<Graph> graphComponents;
-    /** Number of cut edges */
-    private int cutEdgesCount = -1;
-    /** Relative standard deviation from ideal part. */
-    private double deviation = -1;
-    /** Min. number of neighbours. */
-    private int minNeighbours = -1;
-    /** Average number of neighbours. */
-    private double averageNeighbours = -1;
-    /** Max. number of neighbours. */
-    private int maxNeighbours = -1;
+    /** List of graph parts (components), created on demand. */
+    private List<Graph> graphComponents;
+    /** Compact form of partitioned graph. */
+    private CompactGraph compactGraph;
+    /** Part number of each vertex, index of array is dense vertex index. */
+    private int[] partOf;
+    /** Number of parts. */
+    private int partsCount;
+    /** Offsets of parts in partVertices, created on demand. */
+    private int[] partOffsets = null;
+    /** Dense vertex indices ordered by part number, created on demand. */
+    private int[] partVertices = null;
+    /** Quality characteristics of the partition, computed on demand. */
+    private PartitionMetrics metrics = null;
     /** Time of partition. */
     private long time = -1;
 
     /**
-     * Constructor with given mapping.
-     * @param graphComponents Map where key is a vertex ID and value is
-     *                           number of part of graph where this vertex belongs.
+     * Constructor with given graph parts.
+     * Part number of each vertex is computed from the parts on demand,
+     * so the list can be filled after the construction.
+     * @param graphComponents   List of graph parts (components).
      */
     public GraphPartition(List<Graph> graphComponents){
        this.graphComponents = graphComponents;
@@ -35,84 +42,180 @@ public class GraphPartition {
     }
 
     /**
-     * Gets map where key is a vertex ID and value is
-     * number of part of graph where this vertex belongs.
-     * @return map where key is a vertex ID and value is
-     * number of part of graph where this vertex belongs.
+     * Constructor with given part number of each vertex.
+     * @param compactGraph  compact form of partitioned graph.
+     * @param partOf        part number of each vertex, index of array is dense vertex index.
+     * @param partsCount    number of parts.
+     */
+    public GraphPartition(CompactGraph compactGraph, int[] partOf, int partsCount){
+        this.compactGraph = compactGraph;
+        this.partOf = partOf;
+        this.partsCount = partsCount;
+    }
+
+    /**
+     * Gets list of graph parts (components).
+     * If partition was created from part numbers, parts are created on first call.
+     * @return list of graph parts.
      */
     public List<Graph> getGraphComponents(){
+        if (this.graphComponents == null) {
+            int[] offsets = getPartOffsets();
+            List<Graph> components = new ArrayList<>(partsCount);
+            for (int part = 0; part < partsCount; part++) {
+                Map<Integer, Vertex> vertices = new HashMap<>((offsets[part + 1] - offsets[part]) * 2);
+                for (int i = offsets[part]; i < offsets[part + 1]; i++) {
+                    Vertex vertex = compactGraph.getVertex(partVertices[i]);
+                    vertices.put(vertex.getId(), vertex);
+                }
+                components.add(new Graph(vertices, null));
+            }
+            this.graphComponents = components;
+        }
         return  this.graphComponents;
     }
 
     /**
-     * Gets number of cut edges.
-     * @return number of cut edges.
+     * Gets compact form of partitioned graph.
+     * @return compact form of partitioned graph.
      */
-    protected int getCutEdgesCount(){
-        if(cutEdgesCount == -1){
-            for(Graph graph: graphComponents){
-                List<Edge> cutEndingEdges = graph.getCutEndingEdges();
-                List<Edge> cutStartingEdges = graph.getCutStartingEdges();
-                cutEdgesCount += cutEndingEdges.size() + cutStartingEdges.size();
+    public CompactGraph getCompactGraph(){
+        ensurePartOf();
+        return this.compactGraph;
+    }
+
+    /**
+     * Gets part number of each vertex.
+     * @return array with part number, index of array is dense vertex index.
+     */
+    public int[] getPartOf(){
+        ensurePartOf();
+        return this.partOf;
+    }
+
+    /**
+     * Gets part number of vertex.
+     * @param v     dense vertex index.
+     * @return part number.
+     */
+    public int getPart(int v){
+        ensurePartOf();
+        return this.partOf[v];
+    }
+
+    /**
+     * Gets number of parts.
+     * @return number of parts.
+     */
+    public int getPartsCount(){
+        ensurePartOf();
+        return this.partsCount;
+    }
+
+    /**
+     * Gets dense indices of all vertices of given part.
+     * @param part  part number.
+     * @return dense vertex indices of the part.
+     */
+    public int[] getPartVertices(int part){
+        int[] offsets = getPartOffsets();
+        int[] vertices = new int[offsets[part + 1] - offsets[part]];
+        System.arraycopy(partVertices, offsets[part], vertices, 0, vertices.length);
+        return vertices;
+    }
+
+    /**
+     * Gets offsets of parts in array of vertices ordered by part number.
+     * Vertices are ordered by counting sort on first call.
+     * @return offsets of parts, length is number of parts + 1.
+     */
+    private int[] getPartOffsets(){
+        ensurePartOf();
+        if (this.partOffsets == null) {
+            int[] offsets = new int[partsCount + 1];
+            for (int part : partOf) {
+                offsets[part + 1]++;
             }
+            for (int part = 0; part < partsCount; part++) {
+                offsets[part + 1] += offsets[part];
+            }
+            int[] positions = new int[partsCount];
+            System.arraycopy(offsets, 0, positions, 0, partsCount);
+            int[] vertices = new int[partOf.length];
+            for (int v = 0; v < partOf.length; v++) {
+                vertices[positions[partOf[v]]++] = v;
+            }
+            this.partVertices = vertices;
+            this.partOffsets = offsets;
         }
-        return cutEdgesCount;
+        return this.partOffsets;
     }
 
     /**
-     * Gets relative standard deviation.
-     * @return  relative standard deviation from ideal part.
+     * Computes part number of each vertex from graph parts if it was not given.
      */
-    protected double getRelativeStandardDeviation(){
-        if(deviation == -1){
-            double graphValue = getGraphValue();
-            double averageGraphComponentValue = graphValue/graphComponents.size();
-            double sd = 0;
-            for(Graph graph: graphComponents){
-                sd += (averageGraphComponentValue - graph.getWeightValue())*(averageGraphComponentValue - graph.getWeightValue());
+    private void ensurePartOf(){
+        if (this.partOf != null) {
+            return;
+        }
+        Map<Integer, Vertex> vertices = new HashMap<>();
+        for (Graph graph : graphComponents) {
+            vertices.putAll(graph.getVertices());
+        }
+        this.compactGraph = new CompactGraph(new Graph(vertices, null));
+        this.partsCount = graphComponents.size();
+        int[] parts = new int[compactGraph.getVertexCount()];
+        for (int part = 0; part < partsCount; part++) {
+            for (int id : graphComponents.get(part).getVertices().keySet()) {
+                parts[compactGraph.getIndex(id)] = part;
             }
-            deviation = (Math.sqrt(sd/graphComponents.size())/averageGraphComponentValue)*100;
         }
-        return deviation;
+        this.partOf = parts;
+    }
+
+    /**
+     * Gets quality characteristics of the partition.
+     * They are computed on first call.
+     * @return quality characteristics of the partition.
+     */
+    public PartitionMetrics getMetrics(){
+        if(metrics == null){
+            ensurePartOf();
+            metrics = new PartitionMetrics(compactGraph, partOf, partsCount);
+        }
+        return metrics;
+    }
+
+    /**
+     * Gets number of cut edges.
+     * @return number of cut edges.
+     */
+    protected int getCutEdgesCount(){
+        return getMetrics().getCutEdgesCount();
     }
 
+    /**
+     * Gets total weight of cut edges.
+     * @return total weight of cut edges.
+     */
+    protected double getCutWeight(){
+        return getMetrics().getCutWeight();
+    }
 
+    /**
+     * Gets relative standard deviation.
+     * @return  relative standard deviation from ideal part.
+     */
+    protected double getRelativeStandardDeviation(){
+        return getMetrics().getRelativeStandardDeviation();
+    }
 
     /**
      * Gets max. number of part neighbours.
      * @return max. number of part neighbours.
      */
     protected int getMaxNeighbours(){
-        if(maxNeighbours == -1){
-            maxNeighbours = 0;
-            for(Graph graph: graphComponents){
-                List<Edge> cutEndingEdges = graph.getCutEndingEdges();
-                List<Edge> cutStartingEdges = graph.getCutStartingEdges();
-                List<Integer> neighbourNumbers = new ArrayList<>();
-                for(Edge edge: cutEndingEdges){
-                    for(int i = 0; i < graphComponents.size(); i++){
-                        if(graphComponents.get(i).getVertices().containsKey(edge.getStartpoint().getId())){
-                            if(!neighbourNumbers.contains(i)){
-                                neighbourNumbers.add(i);
-                            }
-                        }
-                    }
-                }
-                for(Edge edge: cutStartingEdges){
-                    for(int i = 0; i < graphComponents.size(); i++){
-                        if(graphComponents.get(i).getVertices().containsKey(edge.getEndpoint().getId())){
-                            if(!neighbourNumbers.contains(i)){
-                                neighbourNumbers.add(i);
-                            }
-                        }
-                    }
-                }
-                if(neighbourNumbers.size() > maxNeighbours){
-                    maxNeighbours = neighbourNumbers.size();
-                }
-            }
-        }
-        return maxNeighbours;
+        return getMetrics().getMaxNeighbours();
     }
 
     /**
@@ -120,36 +223,7 @@ public class GraphPartition {
      * @return min. number of part neighbours.
      */
     protected int getMinNeighbours(){
-        if(minNeighbours == -1){
-            minNeighbours = graphComponents.size();
-            for(Graph graph: graphComponents){
-                List<Edge> cutEndingEdges = graph.getCutEndingEdges();
-                List<Edge> cutStartingEdges = graph.getCutStartingEdges();
-                List<Integer> neighbourNumbers = new ArrayList<>();
-                for(Edge edge: cutEndingEdges){
-                    for(int i = 0; i < graphComponents.size(); i++){
-                        if(graphComponents.get(i).getVertices().containsKey(edge.getStartpoint().getId())){
-                            if(!neighbourNumbers.contains(i)){
-                                neighbourNumbers.add(i);
-                            }
-                        }
-                    }
-                }
-                for(Edge edge: cutStartingEdges){
-                    for(int i = 0; i < graphComponents.size(); i++){
-                        if(graphComponents.get(i).getVertices().containsKey(edge.getEndpoint().getId())){
-                            if(!neighbourNumbers.contains(i)){
-                                neighbourNumbers.add(i);
-                            }
-                        }
-                    }
-                }
-                if(neighbourNumbers.size() < minNeighbours){
-                    minNeighbours = neighbourNumbers.size();
-                }
-            }
-        }
-        return minNeighbours;
+        return getMetrics().getMinNeighbours();
     }
 
     /**
@@ -157,36 +231,7 @@ public class GraphPartition {
      * @return average number of part neighbours.
      */
     protected double getAverageNeighbours(){
-        if(averageNeighbours == -1){
-            averageNeighbours = 0;
-            for(Graph graph: graphComponents){
-                List<Edge> cutEndingEdges = graph.getCutEndingEdges();
-                List<Edge> cutStartingEdges = graph.getCutStartingEdges();
-                List<Integer> neighbourNumbers = new ArrayList<>();
-                for(Edge edge: cutEndingEdges){
-                    for(int i = 0; i < graphComponents.size(); i++){
-                        if(graphComponents.get(i).getVertices().containsKey(edge.getStartpoint().getId())){
-                            if(!neighbourNumbers.contains(i)){
-                                neighbourNumbers.add(i);
-                            }
-                        }
-                    }
-                }
-                for(Edge edge: cutStartingEdges){
-                    for(int i = 0; i < graphComponents.size(); i++){
-                        if(graphComponents.get(i).getVertices().containsKey(edge.getEndpoint().getId())){
-                            if(!neighbourNumbers.contains(i)){
-                                neighbourNumbers.add(i);
-                            }
-                        }
-                    }
-                }
-                averageNeighbours += neighbourNumbers.size();
-
-            }
-            averageNeighbours = averageNeighbours/(double)graphComponents.size();
-        }
-        return averageNeighbours;
+        return getMetrics().getAverageNeighbours();
     }
 
     /**
@@ -207,16 +252,4 @@ public class GraphPartition {
         }
     }
 
-    /**
-     * Gets total graph value.
-     * @return total graph value.
-     */
-    private double getGraphValue(){
-        double value = 0;
-        for(Graph graph: graphComponents){
-            value += graph.getWeightValue();
-        }
-        return value;
-    }
-
 }
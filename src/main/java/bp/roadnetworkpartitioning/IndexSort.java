@@ -0,0 +1,155 @@
+package bp.roadnetworkpartitioning;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class sorting indices by primitive keys.
+ * Sorting is stable merge sort, halves of large ranges are sorted in parallel.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public final class IndexSort {
+
+    /** Ranges shorter than this are sorted sequentially. */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+    /** Ranges shorter than this are sorted by insertion sort. */
+    private static final int INSERTION_THRESHOLD = 32;
+
+    /** Task sorting range of indices. */
+    @SuppressWarnings("serial")
+    private static final class SortTask extends RecursiveAction {
+        /** Keys of indices. */
+        private final double[] keys;
+        /** Sorted indices. */
+        private final int[] indices;
+        /** Buffer for merging. */
+        private final int[] buffer;
+        /** First position of range. */
+        private final int from;
+        /** Position after last position of range. */
+        private final int to;
+
+        /**
+         * Constructor of task sorting indices[from] .. indices[to - 1].
+         * @param keys      keys of indices.
+         * @param indices   sorted indices.
+         * @param buffer    buffer for merging.
+         * @param from      first position.
+         * @param to        position after last position.
+         */
+        private SortTask(double[] keys, int[] indices, int[] buffer, int from, int to) {
+            this.keys = keys;
+            this.indices = indices;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < SEQUENTIAL_THRESHOLD) {
+                mergeSort(keys, indices, buffer, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SortTask(keys, indices, buffer, from, middle),
+                    new SortTask(keys, indices, buffer, middle, to));
+            merge(keys, indices, buffer, from, middle, to);
+        }
+    }
+
+    /** Constructor is private, class has only static methods. */
+    private IndexSort() {
+    }
+
+    /**
+     * Sorts indices 0..keys.length-1 by their keys in ascending order.
+     * Indices with equal keys stay in ascending order.
+     * @param keys  key of each index.
+     * @return sorted indices.
+     */
+    public static int[] sort(double[] keys) {
+        int[] indices = new int[keys.length];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        sort(keys, indices);
+        return indices;
+    }
+
+    /**
+     * Sorts given indices by their keys in ascending order.
+     * Indices with equal keys keep their relative order.
+     * @param keys      key of each index.
+     * @param indices   sorted indices.
+     */
+    public static void sort(double[] keys, int[] indices) {
+        int[] buffer = new int[indices.length];
+        if (indices.length < SEQUENTIAL_THRESHOLD) {
+            mergeSort(keys, indices, buffer, 0, indices.length);
+        } else {
+            ForkJoinPool.commonPool().invoke(new SortTask(keys, indices, buffer, 0, indices.length));
+        }
+    }
+
+    /**
+     * Sorts range of indices sequentially.
+     * @param keys      keys of indices.
+     * @param indices   sorted indices.
+     * @param buffer    buffer for merging.
+     * @param from      first position.
+     * @param to        position after last position.
+     */
+    private static void mergeSort(double[] keys, int[] indices, int[] buffer, int from, int to) {
+        if (to - from < INSERTION_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int index = indices[i];
+                double key = keys[index];
+                int j = i - 1;
+                while (j >= from && Double.compare(keys[indices[j]], key) > 0) {
+                    indices[j + 1] = indices[j];
+                    j--;
+                }
+                indices[j + 1] = index;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(keys, indices, buffer, from, middle);
+        mergeSort(keys, indices, buffer, middle, to);
+        merge(keys, indices, buffer, from, middle, to);
+    }
+
+    /**
+     * Merges two sorted neighbouring ranges of indices.
+     * @param keys      keys of indices.
+     * @param indices   sorted indices.
+     * @param buffer    buffer for merging.
+     * @param from      first position of the first range.
+     * @param middle    first position of the second range.
+     * @param to        position after last position of the second range.
+     */
+    private static void merge(double[] keys, int[] indices, int[] buffer, int from, int middle, int to) {
+        if (Double.compare(keys[indices[middle - 1]], keys[indices[middle]]) <= 0) {
+            return;
+        }
+        int i = from;
+        int j = middle;
+        int k = from;
+        while (i < middle && j < to) {
+            if (Double.compare(keys[indices[j]], keys[indices[i]]) < 0) {
+                buffer[k++] = indices[j++];
+            } else {
+                buffer[k++] = indices[i++];
+            }
+        }
+        while (i < middle) {
+            buffer[k++] = indices[i++];
+        }
+        while (j < to) {
+            buffer[k++] = indices[j++];
+        }
+        System.arraycopy(buffer, from, indices, from, to - from);
+    }
+}
@@ -234,7 +234,9 @@ public class JSONParser {
                 }
                 line = sc.nextLine();
             }
-            return new Graph(vertices, edges);
+            Graph graph = new Graph(vertices, edges);
+            graph.createVertexIdMap();
+            return graph;
         } catch (FileNotFoundException e) {
             e.printStackTrace();
         }
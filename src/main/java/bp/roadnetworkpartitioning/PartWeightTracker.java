@@ -0,0 +1,203 @@
+package bp.roadnetworkpartitioning;
+
+/**
+ * Instance of this class keeps weights of parts of a partition while vertices are moved between parts.
+ * Weight of vertex is taken from compact graph, so moving vertex costs O(1) for the weights
+ * and O(log k) for updating two tournament trees over parts, which give the heaviest
+ * and the lightest part in O(1). Ties are resolved in favour of the lower part number.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public final class PartWeightTracker {
+
+    /** Compact form of partitioned graph. */
+    private final CompactGraph compactGraph;
+    /** Part number of each vertex, -1 for vertices without part, updated by moves. */
+    private final int[] partOf;
+    /** Weight of each part. */
+    private final double[] weights;
+    /** Flag of parts removed by merging. */
+    private final boolean[] removed;
+    /** Number of leaves of tournament trees, power of two. */
+    private final int leaves;
+    /** Tournament tree of the heaviest parts, node i has children 2i and 2i + 1, -1 for no part. */
+    private final int[] maxTree;
+    /** Tournament tree of the lightest parts, node i has children 2i and 2i + 1, -1 for no part. */
+    private final int[] minTree;
+
+    /**
+     * Constructor of tracker, it sums weights of parts in one pass over vertices.
+     * @param compactGraph  compact form of partitioned graph.
+     * @param partOf        part number of each vertex, -1 for vertices without part.
+     *                      Array is not copied, moves update it.
+     * @param partsCount    number of parts.
+     */
+    public PartWeightTracker(CompactGraph compactGraph, int[] partOf, int partsCount) {
+        this.compactGraph = compactGraph;
+        this.partOf = partOf;
+        this.weights = new double[partsCount];
+        this.removed = new boolean[partsCount];
+        for (int v = 0; v < partOf.length; v++) {
+            if (partOf[v] != -1) {
+                weights[partOf[v]] += compactGraph.getVertexWeight(v);
+            }
+        }
+        int size = 1;
+        while (size < partsCount) {
+            size *= 2;
+        }
+        this.leaves = size;
+        this.maxTree = new int[2 * size];
+        this.minTree = new int[2 * size];
+        for (int i = 0; i < size; i++) {
+            maxTree[size + i] = i < partsCount ? i : -1;
+            minTree[size + i] = maxTree[size + i];
+        }
+        for (int node = size - 1; node > 0; node--) {
+            pull(node);
+        }
+    }
+
+    /**
+     * Gets number of parts including removed ones.
+     * @return number of parts.
+     */
+    public int getPartsCount() {
+        return weights.length;
+    }
+
+    /**
+     * Gets current weight of part.
+     * @param part  part number.
+     * @return weight of part.
+     */
+    public double getWeight(int part) {
+        return weights[part];
+    }
+
+    /**
+     * Gets current part of vertex.
+     * @param v     dense vertex index.
+     * @return part number, -1 for vertex without part.
+     */
+    public int getPart(int v) {
+        return partOf[v];
+    }
+
+    /**
+     * Gets the heaviest part that was not removed.
+     * @return part number or -1 if there is no part.
+     */
+    public int getMaxPart() {
+        return maxTree[1];
+    }
+
+    /**
+     * Gets the lightest part that was not removed.
+     * @return part number or -1 if there is no part.
+     */
+    public int getMinPart() {
+        return minTree[1];
+    }
+
+    /**
+     * Moves vertex to another part.
+     * @param v         dense vertex index.
+     * @param part      new part number, -1 removes vertex from its part.
+     */
+    public void moveVertex(int v, int part) {
+        int oldPart = partOf[v];
+        if (oldPart == part) {
+            return;
+        }
+        double weight = compactGraph.getVertexWeight(v);
+        partOf[v] = part;
+        if (oldPart != -1) {
+            weights[oldPart] -= weight;
+            update(oldPart);
+        }
+        if (part != -1) {
+            weights[part] += weight;
+            update(part);
+        }
+    }
+
+    /**
+     * Adds weight of one part to another part and removes the first part from max. and min. queries.
+     * Part numbers of vertices are not changed, the caller keeps track of merged vertices.
+     * @param from      merged part, it is removed.
+     * @param into      part receiving the weight.
+     */
+    public void mergeWeights(int from, int into) {
+        weights[into] += weights[from];
+        weights[from] = 0;
+        removed[from] = true;
+        update(from);
+        update(into);
+    }
+
+    /**
+     * Gets relative standard deviation of weights of parts that were not removed.
+     * @return relative standard deviation in percent.
+     */
+    public double getRelativeStandardDeviation() {
+        int count = 0;
+        for (boolean partRemoved : removed) {
+            if (!partRemoved) {
+                count++;
+            }
+        }
+        double[] partWeights = new double[count];
+        count = 0;
+        for (int part = 0; part < weights.length; part++) {
+            if (!removed[part]) {
+                partWeights[count++] = weights[part];
+            }
+        }
+        return relativeStandardDeviation(partWeights);
+    }
+
+    /**
+     * Computes relative standard deviation of part weights from ideal part.
+     * @param partWeights   weight of each part.
+     * @return relative standard deviation in percent.
+     */
+    public static double relativeStandardDeviation(double[] partWeights) {
+        double graphValue = 0;
+        for (double partWeight : partWeights) {
+            graphValue += partWeight;
+        }
+        double averagePartWeight = graphValue / partWeights.length;
+        double sd = 0;
+        for (double partWeight : partWeights) {
+            sd += (averagePartWeight - partWeight) * (averagePartWeight - partWeight);
+        }
+        return (Math.sqrt(sd / partWeights.length) / averagePartWeight) * 100;
+    }
+
+    /**
+     * Updates tournament trees on path from leaf of part to root.
+     * @param part  part number with changed weight.
+     */
+    private void update(int part) {
+        int node = leaves + part;
+        maxTree[node] = removed[part] ? -1 : part;
+        minTree[node] = maxTree[node];
+        for (node /= 2; node > 0; node /= 2) {
+            pull(node);
+        }
+    }
+
+    /**
+     * Recomputes inner node of tournament trees from its children.
+     * @param node  inner node.
+     */
+    private void pull(int node) {
+        int left = maxTree[2 * node];
+        int right = maxTree[2 * node + 1];
+        maxTree[node] = (left == -1 || (right != -1 && weights[right] > weights[left])) ? right : left;
+        left = minTree[2 * node];
+        right = minTree[2 * node + 1];
+        minTree[node] = (left == -1 || (right != -1 && weights[right] < weights[left])) ? right : left;
+    }
+}
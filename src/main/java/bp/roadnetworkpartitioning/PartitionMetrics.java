@@ -0,0 +1,304 @@
+package bp.roadnetworkpartitioning;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Instance of this class holds quality characteristics of a graph partition.
+ * All characteristics are computed together in one pass over vertices and edges.
+ * Vertices are ordered by part and split into chunks that are evaluated in parallel,
+ * partial results are merged in chunk order, so the result does not depend on scheduling.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public final class PartitionMetrics {
+
+    /** Default number of vertices evaluated by one task. */
+    static final int CHUNK_SIZE = 1 << 14;
+
+    /** Partial characteristics of consecutive vertices (in part order) belonging to one part. */
+    private static final class PartRun {
+        /** Part number. */
+        private final int part;
+        /** Weight of vertices. */
+        private double weight = 0;
+        /** Number of cut edges starting in vertices. */
+        private int cutEdges = 0;
+        /** Weight of cut edges starting in vertices. */
+        private double cutWeight = 0;
+        /** Neighbour parts of vertices. */
+        private final BitSet neighbours = new BitSet();
+
+        /**
+         * Constructor of run of given part.
+         * @param part  part number.
+         */
+        private PartRun(int part) {
+            this.part = part;
+        }
+    }
+
+    /** Task evaluating range of chunks, it splits itself in half until one chunk is left. */
+    @SuppressWarnings("serial")
+    private static final class ChunksTask extends RecursiveAction {
+        /** Compact form of partitioned graph. */
+        private final CompactGraph compactGraph;
+        /** Part number of each vertex. */
+        private final int[] partOf;
+        /** Dense vertex indices ordered by part. */
+        private final int[] order;
+        /** Results of each chunk. */
+        private final PartRun[][] results;
+        /** Number of vertices of one chunk. */
+        private final int chunkSize;
+        /** First chunk of range. */
+        private final int from;
+        /** Chunk after last chunk of range. */
+        private final int to;
+
+        /**
+         * Constructor of task evaluating chunks from..to-1.
+         * @param compactGraph  compact form of partitioned graph.
+         * @param partOf        part number of each vertex.
+         * @param order         dense vertex indices ordered by part.
+         * @param results       results of each chunk.
+         * @param chunkSize     number of vertices of one chunk.
+         * @param from          first chunk.
+         * @param to            chunk after last chunk.
+         */
+        private ChunksTask(CompactGraph compactGraph, int[] partOf, int[] order, PartRun[][] results,
+                           int chunkSize, int from, int to) {
+            this.compactGraph = compactGraph;
+            this.partOf = partOf;
+            this.order = order;
+            this.results = results;
+            this.chunkSize = chunkSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                int start = from * chunkSize;
+                results[from] = evaluate(compactGraph, partOf, order, start, Math.min(start + chunkSize, order.length));
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunksTask(compactGraph, partOf, order, results, chunkSize, from, middle),
+                    new ChunksTask(compactGraph, partOf, order, results, chunkSize, middle, to));
+        }
+    }
+
+    /** Number of cut edges (each cut edge is counted once). */
+    private final int cutEdgesCount;
+    /** Total weight of cut edges. */
+    private final double cutWeight;
+    /** Weight of each part. */
+    private final double[] partWeights;
+    /** Neighbour parts of each part. */
+    private final BitSet[] neighbours;
+    /** Min. number of neighbours. */
+    private final int minNeighbours;
+    /** Max. number of neighbours. */
+    private final int maxNeighbours;
+    /** Average number of neighbours. */
+    private final double averageNeighbours;
+    /** Relative standard deviation of part weights from ideal part in percent. */
+    private final double deviation;
+
+    /**
+     * Computes characteristics of given partition.
+     * @param compactGraph  compact form of partitioned graph.
+     * @param partOf        part number of each vertex, index of array is dense vertex index.
+     * @param partsCount    number of parts.
+     */
+    public PartitionMetrics(CompactGraph compactGraph, int[] partOf, int partsCount) {
+        this(compactGraph, partOf, partsCount, CHUNK_SIZE);
+    }
+
+    /**
+     * Computes characteristics of given partition with given size of chunks.
+     * @param compactGraph  compact form of partitioned graph.
+     * @param partOf        part number of each vertex, index of array is dense vertex index.
+     * @param partsCount    number of parts.
+     * @param chunkSize     number of vertices evaluated by one task.
+     */
+    PartitionMetrics(CompactGraph compactGraph, int[] partOf, int partsCount, int chunkSize) {
+        this.partWeights = new double[partsCount];
+        this.neighbours = new BitSet[partsCount];
+        int[] order = orderByPart(partOf, partsCount);
+        int chunks = (order.length + chunkSize - 1) / chunkSize;
+        PartRun[][] results = new PartRun[chunks][];
+        if (chunks == 1) {
+            results[0] = evaluate(compactGraph, partOf, order, 0, order.length);
+        } else if (chunks > 1) {
+            ForkJoinPool.commonPool().invoke(new ChunksTask(compactGraph, partOf, order, results, chunkSize, 0, chunks));
+        }
+        int cutEdges = 0;
+        double cutEdgesWeight = 0;
+        for (PartRun[] runs : results) {
+            for (PartRun run : runs) {
+                partWeights[run.part] += run.weight;
+                cutEdges += run.cutEdges;
+                cutEdgesWeight += run.cutWeight;
+                if (neighbours[run.part] == null) {
+                    neighbours[run.part] = run.neighbours;
+                } else {
+                    neighbours[run.part].or(run.neighbours);
+                }
+            }
+        }
+        for (int part = 0; part < partsCount; part++) {
+            if (neighbours[part] == null) {
+                neighbours[part] = new BitSet();
+            }
+        }
+        this.cutEdgesCount = cutEdges;
+        this.cutWeight = cutEdgesWeight;
+
+        int min = partsCount;
+        int max = 0;
+        double total = 0;
+        for (BitSet partNeighbours : neighbours) {
+            int count = partNeighbours.cardinality();
+            min = Math.min(min, count);
+            max = Math.max(max, count);
+            total += count;
+        }
+        this.minNeighbours = min;
+        this.maxNeighbours = max;
+        this.averageNeighbours = total / partsCount;
+
+        this.deviation = PartWeightTracker.relativeStandardDeviation(partWeights);
+    }
+
+    /**
+     * Gets number of cut edges, each cut edge is counted once.
+     * @return number of cut edges.
+     */
+    public int getCutEdgesCount() {
+        return cutEdgesCount;
+    }
+
+    /**
+     * Gets total weight of cut edges.
+     * @return total weight of cut edges.
+     */
+    public double getCutWeight() {
+        return cutWeight;
+    }
+
+    /**
+     * Gets weight of part.
+     * @param part  part number.
+     * @return weight of part.
+     */
+    public double getPartWeight(int part) {
+        return partWeights[part];
+    }
+
+    /**
+     * Gets number of neighbour parts of part.
+     * @param part  part number.
+     * @return number of neighbour parts.
+     */
+    public int getNeighboursCount(int part) {
+        return neighbours[part].cardinality();
+    }
+
+    /**
+     * Gets min. number of part neighbours.
+     * @return min. number of part neighbours.
+     */
+    public int getMinNeighbours() {
+        return minNeighbours;
+    }
+
+    /**
+     * Gets max. number of part neighbours.
+     * @return max. number of part neighbours.
+     */
+    public int getMaxNeighbours() {
+        return maxNeighbours;
+    }
+
+    /**
+     * Gets average number of part neighbours.
+     * @return average number of part neighbours.
+     */
+    public double getAverageNeighbours() {
+        return averageNeighbours;
+    }
+
+    /**
+     * Gets relative standard deviation of part weights from ideal part.
+     * @return relative standard deviation in percent.
+     */
+    public double getRelativeStandardDeviation() {
+        return deviation;
+    }
+
+    /**
+     * Orders dense vertex indices by their part number (counting sort).
+     * @param partOf        part number of each vertex.
+     * @param partsCount    number of parts.
+     * @return dense vertex indices ordered by part.
+     */
+    private static int[] orderByPart(int[] partOf, int partsCount) {
+        int[] positions = new int[partsCount + 1];
+        for (int part : partOf) {
+            positions[part + 1]++;
+        }
+        for (int part = 0; part < partsCount; part++) {
+            positions[part + 1] += positions[part];
+        }
+        int[] order = new int[partOf.length];
+        for (int v = 0; v < partOf.length; v++) {
+            order[positions[partOf[v]]++] = v;
+        }
+        return order;
+    }
+
+    /**
+     * Evaluates vertices order[start] .. order[end - 1].
+     * Cut edges are counted at their startpoint, neighbour parts are taken from both directions.
+     * @param compactGraph  compact form of partitioned graph.
+     * @param partOf        part number of each vertex.
+     * @param order         dense vertex indices ordered by part.
+     * @param start         first position in order.
+     * @param end           position after last position in order.
+     * @return partial characteristics, one for each part present in the range.
+     */
+    private static PartRun[] evaluate(CompactGraph compactGraph, int[] partOf, int[] order, int start, int end) {
+        List<PartRun> runs = new ArrayList<>();
+        PartRun run = null;
+        for (int i = start; i < end; i++) {
+            int v = order[i];
+            int part = partOf[v];
+            if (run == null || run.part != part) {
+                run = new PartRun(part);
+                runs.add(run);
+            }
+            run.weight += compactGraph.getVertexWeight(v);
+            for (int arc = compactGraph.getOutStart(v); arc < compactGraph.getOutEnd(v); arc++) {
+                int neighbourPart = partOf[compactGraph.getOutTarget(arc)];
+                if (neighbourPart != part) {
+                    run.cutEdges++;
+                    run.cutWeight += compactGraph.getOutWeight(arc);
+                    run.neighbours.set(neighbourPart);
+                }
+            }
+            for (int arc = compactGraph.getInStart(v); arc < compactGraph.getInEnd(v); arc++) {
+                int neighbourPart = partOf[compactGraph.getInSource(arc)];
+                if (neighbourPart != part) {
+                    run.neighbours.set(neighbourPart);
+                }
+            }
+        }
+        return runs.toArray(new PartRun[0]);
+    }
+}
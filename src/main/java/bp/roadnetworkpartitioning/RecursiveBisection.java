@@ -0,0 +1,117 @@
+package bp.roadnetworkpartitioning;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class dividing graph into any number of parts by recursive bisection.
+ * Both halves of each bisection are divided further as independent fork/join tasks.
+ * When number of parts is odd, halves get weight proportional to number of their parts.
+ * Seeds of subproblems are derived from the initial seed before tasks are forked,
+ * so the result does not depend on scheduling.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public final class RecursiveBisection {
+
+    /** Task dividing subgraph into given number of parts. */
+    @SuppressWarnings("serial")
+    private static final class BisectionTask extends RecursiveAction {
+        /** Bisection algorithm. */
+        private final GraphBisector bisector;
+        /** Divided subgraph. */
+        private final CompactGraph graph;
+        /** Dense vertex index in the whole graph of each vertex of subgraph. */
+        private final int[] vertices;
+        /** Number of parts of subgraph. */
+        private final int partsCount;
+        /** Number of the first part of subgraph. */
+        private final int firstPart;
+        /** Seed of bisection of subgraph. */
+        private final long seed;
+        /** Part of each vertex of the whole graph. */
+        private final int[] partOf;
+
+        /**
+         * Constructor of task.
+         * @param bisector      bisection algorithm.
+         * @param graph         divided subgraph.
+         * @param vertices      dense vertex index in the whole graph of each vertex of subgraph.
+         * @param partsCount    number of parts of subgraph.
+         * @param firstPart     number of the first part of subgraph.
+         * @param seed          seed of bisection of subgraph.
+         * @param partOf        part of each vertex of the whole graph.
+         */
+        private BisectionTask(GraphBisector bisector, CompactGraph graph, int[] vertices,
+                              int partsCount, int firstPart, long seed, int[] partOf) {
+            this.bisector = bisector;
+            this.graph = graph;
+            this.vertices = vertices;
+            this.partsCount = partsCount;
+            this.firstPart = firstPart;
+            this.seed = seed;
+            this.partOf = partOf;
+        }
+
+        @Override
+        protected void compute() {
+            if (partsCount == 1) {
+                for (int v : vertices) {
+                    partOf[v] = firstPart;
+                }
+                return;
+            }
+            int firstPartsCount = partsCount / 2;
+            int[] sides = bisector.bisect(graph, (double) firstPartsCount / partsCount, seed);
+            SplittableRandom random = new SplittableRandom(seed);
+            BisectionTask[] tasks = new BisectionTask[2];
+            for (int side = 0; side < 2; side++) {
+                int count = 0;
+                for (int s : sides) {
+                    if (s == side) {
+                        count++;
+                    }
+                }
+                int[] subVertices = new int[count];
+                int[] wholeVertices = new int[count];
+                int i = 0;
+                for (int v = 0; v < sides.length; v++) {
+                    if (sides[v] == side) {
+                        subVertices[i] = v;
+                        wholeVertices[i] = vertices[v];
+                        i++;
+                    }
+                }
+                int sidePartsCount = side == 0 ? firstPartsCount : partsCount - firstPartsCount;
+                int sideFirstPart = side == 0 ? firstPart : firstPart + firstPartsCount;
+                tasks[side] = new BisectionTask(bisector, graph.subgraph(subVertices), wholeVertices,
+                        sidePartsCount, sideFirstPart, random.nextLong(), partOf);
+            }
+            invokeAll(tasks[0], tasks[1]);
+        }
+    }
+
+    /** Constructor is private, class has only static methods. */
+    private RecursiveBisection() {
+    }
+
+    /**
+     * Divides graph into given number of parts.
+     * @param graph         divided graph.
+     * @param partsCount    number of parts.
+     * @param bisector      bisection algorithm.
+     * @param seed          seed of the first bisection.
+     * @return part of each vertex, index of array is dense vertex index.
+     */
+    public static int[] partition(CompactGraph graph, int partsCount, GraphBisector bisector, long seed) {
+        int[] partOf = new int[graph.getVertexCount()];
+        int[] vertices = new int[graph.getVertexCount()];
+        for (int v = 0; v < vertices.length; v++) {
+            vertices[v] = v;
+        }
+        ForkJoinPool.commonPool().invoke(new BisectionTask(bisector, graph, vertices,
+                Math.max(1, partsCount), 0, seed, partOf));
+        return partOf;
+    }
+}
@@ -135,12 +135,13 @@ public class TestDialogController extends Dialog<Boolean> {
      * @param graphPartition    graph partition.
      */
     private void addToStatistics(APartitionAlgorithm algorithm, GraphPartition graphPartition) {
+        PartitionMetrics metrics = graphPartition.getMetrics();
         statistics.addTime(algorithm.getName(), graphPartition.getTime());
-        statistics.addDeviation(algorithm.getName(), graphPartition.getRelativeStandardDeviation());
-        statistics.addNumberOfCutEdges(algorithm.getName(), graphPartition.getCutEdgesCount());
-        statistics.addMinNumberOfNeighbours(algorithm.getName(), graphPartition.getMinNeighbours());
-        statistics.addMaxNumberOfNeighbours(algorithm.getName(), graphPartition.getMaxNeighbours());
-        statistics.addAverageNumberOfNeighbours(algorithm.getName(), graphPartition.getAverageNeighbours());
+        statistics.addDeviation(algorithm.getName(), metrics.getRelativeStandardDeviation());
+        statistics.addNumberOfCutEdges(algorithm.getName(), metrics.getCutEdgesCount());
+        statistics.addMinNumberOfNeighbours(algorithm.getName(), metrics.getMinNeighbours());
+        statistics.addMaxNumberOfNeighbours(algorithm.getName(), metrics.getMaxNeighbours());
+        statistics.addAverageNumberOfNeighbours(algorithm.getName(), metrics.getAverageNeighbours());
     }
 
 
@@ -0,0 +1,105 @@
+package bp.roadnetworkpartitioning;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Instance of this class translates vertex IDs to dense indices 0..n-1 and back.
+ * Indices are assigned in ascending order of IDs. Reverse table (index to ID) is
+ * a plain sorted array, translation of ID to index uses direct table when IDs are
+ * dense enough, otherwise binary search in the reverse table.
+ * @author Lucie Roy
+ * @version 18-10-2026
+ */
+public final class VertexIdMap {
+
+    /** Maximal ratio of ID range to number of IDs for using direct table. */
+    private static final int DIRECT_TABLE_RATIO = 2;
+    /** IDs of vertices, index of array is dense vertex index. */
+    private final int[] ids;
+    /** Direct table mapping ID - minId to dense index, null if IDs are sparse. */
+    private final int[] table;
+    /** Smallest ID. */
+    private final int minId;
+
+    /**
+     * Constructor of ID map from given vertex IDs.
+     * @param vertexIds     IDs of vertices (unique).
+     */
+    public VertexIdMap(Collection<Integer> vertexIds) {
+        this(toArray(vertexIds));
+    }
+
+    /**
+     * Constructor of ID map from given vertex IDs.
+     * @param vertexIds     IDs of vertices (unique), array is sorted in place.
+     */
+    public VertexIdMap(int[] vertexIds) {
+        this.ids = vertexIds;
+        Arrays.sort(ids);
+        if (ids.length == 0) {
+            this.minId = 0;
+            this.table = null;
+            return;
+        }
+        this.minId = ids[0];
+        long range = (long) ids[ids.length - 1] - minId + 1;
+        if (range <= (long) DIRECT_TABLE_RATIO * ids.length + 16) {
+            this.table = new int[(int) range];
+            Arrays.fill(table, -1);
+            for (int index = 0; index < ids.length; index++) {
+                table[ids[index] - minId] = index;
+            }
+        } else {
+            this.table = null;
+        }
+    }
+
+    /**
+     * Copies vertex IDs to array.
+     * @param vertexIds     IDs of vertices.
+     * @return array of IDs.
+     */
+    private static int[] toArray(Collection<Integer> vertexIds) {
+        int[] ids = new int[vertexIds.size()];
+        int i = 0;
+        for (int id : vertexIds) {
+            ids[i++] = id;
+        }
+        return ids;
+    }
+
+    /**
+     * Gets number of mapped vertices.
+     * @return number of vertices.
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Gets vertex ID for dense index.
+     * @param index     dense vertex index.
+     * @return vertex ID.
+     */
+    public int getId(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Gets dense index for vertex ID.
+     * @param id    vertex ID.
+     * @return dense vertex index or -1 if ID is not mapped.
+     */
+    public int getIndex(int id) {
+        if (table != null) {
+            long offset = (long) id - minId;
+            if (offset < 0 || offset >= table.length) {
+                return -1;
+            }
+            return table[(int) offset];
+        }
+        int index = Arrays.binarySearch(ids, id);
+        return index < 0 ? -1 : index;
+    }
+}
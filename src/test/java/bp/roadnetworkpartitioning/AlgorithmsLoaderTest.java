@@ -15,7 +15,7 @@ class AlgorithmsLoaderTest {
     @Test
     void findAlgorithms() {
         Map<String, APartitionAlgorithm> algorithmsMap = AlgorithmsLoader.findAlgorithms();
-        String[] actualAlgorithms = {"METIS", "Inertial Flow", "SParTSim"};
+        String[] actualAlgorithms = {"METIS", "Inertial Flow", "SParTSim", "Label Propagation", "Geometric"};
         Arrays.sort(actualAlgorithms);
         String[] algorithms = algorithmsMap.keySet().toArray(new String[0]);
         Arrays.sort(algorithms);
@@ -0,0 +1,87 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactGraphTest {
+
+    @Test
+    void adjacency() {
+        Graph graph = Graph.generateGraph(3, 2, 5);
+        CompactGraph compactGraph = new CompactGraph(graph);
+        assertEquals(6, compactGraph.getVertexCount());
+        assertEquals(14, compactGraph.getEdgeCount());
+        for (int v = 0; v < compactGraph.getVertexCount(); v++) {
+            Vertex vertex = compactGraph.getVertex(v);
+            assertEquals(v, compactGraph.getIndex(vertex.getId()));
+            assertEquals(vertex.getStartingEdges().size(), compactGraph.getOutEnd(v) - compactGraph.getOutStart(v));
+            assertEquals(vertex.getEndingEdges().size(), compactGraph.getInEnd(v) - compactGraph.getInStart(v));
+            for (int arc = compactGraph.getOutStart(v); arc < compactGraph.getOutEnd(v); arc++) {
+                int target = compactGraph.getOutTarget(arc);
+                assertEquals(5, compactGraph.getOutLength(arc));
+                boolean found = false;
+                for (int inArc = compactGraph.getInStart(target); inArc < compactGraph.getInEnd(target); inArc++) {
+                    found |= compactGraph.getInSource(inArc) == v;
+                }
+                assertTrue(found);
+            }
+        }
+    }
+
+    @Test
+    void getTotalWeight() {
+        Graph graph = Graph.generateGraph(4, 3, 2);
+        CompactGraph compactGraph = new CompactGraph(graph);
+        assertEquals(graph.getWeightValue(), compactGraph.getTotalWeight(), 1e-9);
+    }
+
+    @Test
+    void subgraph() {
+        Graph graph = Graph.generateGraph(3, 2, 5);
+        Map<Integer, Vertex> vertices = new HashMap<>();
+        vertices.put(1, graph.getVertices().get(1));
+        vertices.put(2, graph.getVertices().get(2));
+        CompactGraph compactGraph = new CompactGraph(new Graph(vertices, null));
+        assertEquals(2, compactGraph.getVertexCount());
+        assertEquals(2, compactGraph.getEdgeCount());
+        assertEquals(-1, compactGraph.getIndex(3));
+        assertEquals(new Graph(vertices, null).getWeightValue(), compactGraph.getTotalWeight(), 1e-9);
+    }
+
+    @Test
+    void compactSubgraph() {
+        Graph graph = Graph.generateGraph(3, 2, 5);
+        CompactGraph compactGraph = new CompactGraph(graph);
+        CompactGraph subgraph = compactGraph.subgraph(new int[]{1, 2, 4});
+        assertEquals(3, subgraph.getVertexCount());
+        assertEquals(compactGraph.getVertex(2), subgraph.getVertex(1));
+        assertEquals(1, subgraph.getIndex(compactGraph.getVertex(2).getId()));
+        assertEquals(-1, subgraph.getIndex(compactGraph.getVertex(0).getId()));
+        int edges = 0;
+        for (int v = 0; v < compactGraph.getVertexCount(); v++) {
+            for (int arc = compactGraph.getOutStart(v); arc < compactGraph.getOutEnd(v); arc++) {
+                if ((v == 1 || v == 2 || v == 4) && (compactGraph.getOutTarget(arc) == 1
+                        || compactGraph.getOutTarget(arc) == 2 || compactGraph.getOutTarget(arc) == 4)) {
+                    edges++;
+                }
+            }
+        }
+        assertEquals(edges, subgraph.getEdgeCount());
+        assertEquals(compactGraph.getVertexWeight(1) + compactGraph.getVertexWeight(2) + compactGraph.getVertexWeight(4),
+                subgraph.getTotalWeight(), 1e-9);
+        for (int v = 0; v < subgraph.getVertexCount(); v++) {
+            for (int arc = subgraph.getInStart(v); arc < subgraph.getInEnd(v); arc++) {
+                int source = subgraph.getInSource(arc);
+                boolean found = false;
+                for (int outArc = subgraph.getOutStart(source); outArc < subgraph.getOutEnd(source); outArc++) {
+                    found |= subgraph.getOutTarget(outArc) == v;
+                }
+                assertTrue(found);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectedComponentsTest {
+
+    @Test
+    void wholeGraph() {
+        Graph graph = Graph.generateGraph(4, 2, 5);
+        ConnectedComponents components = graph.getConnectedComponents();
+        assertTrue(components.isConnected());
+        assertEquals(1, components.getCount());
+        assertEquals(8, components.getSize(0));
+    }
+
+    @Test
+    void componentsOfParts() {
+        CompactGraph compactGraph = new CompactGraph(Graph.generateGraph(4, 2, 5));
+        int[] partOf = new int[compactGraph.getVertexCount()];
+        for (int v = 0; v < partOf.length; v++) {
+            double x = compactGraph.getX(v);
+            partOf[v] = (x < 5 || x > 10) ? 0 : 1;
+        }
+        partOf[compactGraph.getVertexCount() - 1] = -1;
+        ConnectedComponents components = new ConnectedComponents(compactGraph, partOf);
+        assertEquals(3, components.getCount());
+        assertFalse(components.isConnected());
+        assertEquals(-1, components.getComponent(compactGraph.getVertexCount() - 1));
+        int sizes = 0;
+        for (int v = 0; v < partOf.length; v++) {
+            int component = components.getComponent(v);
+            if (component != -1) {
+                for (int u = 0; u < partOf.length; u++) {
+                    if (components.getComponent(u) == component) {
+                        assertEquals(partOf[v], partOf[u]);
+                    }
+                }
+            }
+        }
+        for (int component = 0; component < components.getCount(); component++) {
+            sizes += components.getSize(component);
+        }
+        assertEquals(compactGraph.getVertexCount() - 1, sizes);
+        assertEquals(0, components.getComponent(0));
+    }
+}
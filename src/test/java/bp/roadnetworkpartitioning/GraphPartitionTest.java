@@ -0,0 +1,74 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphPartitionTest {
+
+    /**
+     * Creates partition of 4x2 grid graph into left and right half.
+     * @param graph     4x2 grid graph.
+     * @return partition of the graph.
+     */
+    private GraphPartition createHalves(Graph graph) {
+        CompactGraph compactGraph = new CompactGraph(graph);
+        int[] partOf = new int[compactGraph.getVertexCount()];
+        for (int v = 0; v < partOf.length; v++) {
+            partOf[v] = compactGraph.getX(v) < 10 ? 0 : 1;
+        }
+        return new GraphPartition(compactGraph, partOf, 2);
+    }
+
+    @Test
+    void getGraphComponents() {
+        Graph graph = Graph.generateGraph(4, 2, 5);
+        GraphPartition graphPartition = createHalves(graph);
+        List<Graph> components = graphPartition.getGraphComponents();
+        assertEquals(2, components.size());
+        assertEquals(4, components.get(0).getVertices().size());
+        assertEquals(4, components.get(1).getVertices().size());
+        assertTrue(components.get(0).getVertices().containsKey(1));
+        assertTrue(components.get(1).getVertices().containsKey(4));
+        assertEquals(4, graphPartition.getPartVertices(1).length);
+    }
+
+    @Test
+    void getPartOf() {
+        Graph graph = Graph.generateGraph(4, 2, 5);
+        Map<Integer, Vertex> left = new HashMap<>();
+        Map<Integer, Vertex> right = new HashMap<>();
+        for (Vertex vertex : graph.getVertices().values()) {
+            (vertex.getXCoordinate() < 10 ? left : right).put(vertex.getId(), vertex);
+        }
+        List<Graph> components = new ArrayList<>();
+        GraphPartition graphPartition = new GraphPartition(components);
+        components.add(new Graph(left, null));
+        components.add(new Graph(right, null));
+        assertEquals(2, graphPartition.getPartsCount());
+        CompactGraph compactGraph = graphPartition.getCompactGraph();
+        for (int v = 0; v < compactGraph.getVertexCount(); v++) {
+            int expected = compactGraph.getX(v) < 10 ? 0 : 1;
+            assertEquals(expected, graphPartition.getPart(v));
+        }
+    }
+
+    @Test
+    void getMetrics() {
+        Graph graph = Graph.generateGraph(4, 2, 5);
+        GraphPartition graphPartition = createHalves(graph);
+        assertEquals(4, graphPartition.getCutEdgesCount());
+        assertEquals(20.0, graphPartition.getCutWeight(), 1e-9);
+        assertEquals(1, graphPartition.getMinNeighbours());
+        assertEquals(1, graphPartition.getMaxNeighbours());
+        assertEquals(1.0, graphPartition.getAverageNeighbours(), 1e-9);
+        assertEquals(0.0, graphPartition.getRelativeStandardDeviation(), 1e-9);
+        PartitionMetrics metrics = graphPartition.getMetrics();
+        assertEquals(graph.getWeightValue(), metrics.getPartWeight(0) + metrics.getPartWeight(1), 1e-9);
+    }
+}
@@ -0,0 +1,39 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexSortTest {
+
+    @Test
+    void sort() {
+        double[] keys = {3.0, 1.0, 2.0, 1.0, 0.5};
+        assertArrayEquals(new int[]{4, 1, 3, 2, 0}, IndexSort.sort(keys));
+    }
+
+    @Test
+    void sortLarge() {
+        Random random = new Random(7);
+        double[] keys = new double[100000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(1000);
+        }
+        int[] indices = IndexSort.sort(keys);
+        boolean[] seen = new boolean[keys.length];
+        for (int i = 0; i < indices.length; i++) {
+            seen[indices[i]] = true;
+            if (i > 0) {
+                assertTrue(keys[indices[i - 1]] <= keys[indices[i]]);
+                if (keys[indices[i - 1]] == keys[indices[i]]) {
+                    assertTrue(indices[i - 1] < indices[i]);
+                }
+            }
+        }
+        for (boolean s : seen) {
+            assertTrue(s);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartWeightTrackerTest {
+
+    /**
+     * Creates part numbers of 4x2 grid graph divided into left and right half.
+     * @param compactGraph  compact form of 4x2 grid graph.
+     * @return part number of each vertex.
+     */
+    private int[] createHalves(CompactGraph compactGraph) {
+        int[] partOf = new int[compactGraph.getVertexCount()];
+        for (int v = 0; v < partOf.length; v++) {
+            partOf[v] = compactGraph.getX(v) < 10 ? 0 : 1;
+        }
+        return partOf;
+    }
+
+    @Test
+    void moveVertex() {
+        CompactGraph compactGraph = new CompactGraph(Graph.generateGraph(4, 2, 5));
+        int[] partOf = createHalves(compactGraph);
+        PartWeightTracker weights = new PartWeightTracker(compactGraph, partOf, 3);
+        assertEquals(compactGraph.getTotalWeight(), weights.getWeight(0) + weights.getWeight(1), 0.000001);
+        assertEquals(2, weights.getMinPart());
+        int v = 0;
+        while (partOf[v] != 1) {
+            v++;
+        }
+        double weight = weights.getWeight(1);
+        weights.moveVertex(v, 2);
+        assertEquals(2, partOf[v]);
+        assertEquals(weight - compactGraph.getVertexWeight(v), weights.getWeight(1), 0.000001);
+        assertEquals(compactGraph.getVertexWeight(v), weights.getWeight(2), 0.000001);
+        assertEquals(0, weights.getMaxPart());
+        weights.moveVertex(v, -1);
+        assertEquals(-1, partOf[v]);
+        assertEquals(0, weights.getWeight(2), 0.000001);
+        assertEquals(2, weights.getMinPart());
+    }
+
+    @Test
+    void mergeWeights() {
+        CompactGraph compactGraph = new CompactGraph(Graph.generateGraph(4, 2, 5));
+        int[] partOf = createHalves(compactGraph);
+        PartWeightTracker weights = new PartWeightTracker(compactGraph, partOf, 2);
+        PartitionMetrics metrics = new PartitionMetrics(compactGraph, partOf, 2);
+        assertEquals(metrics.getRelativeStandardDeviation(), weights.getRelativeStandardDeviation(), 0.000001);
+        weights.mergeWeights(1, 0);
+        assertEquals(compactGraph.getTotalWeight(), weights.getWeight(0), 0.000001);
+        assertEquals(0, weights.getMaxPart());
+        assertEquals(0, weights.getMinPart());
+        assertEquals(0, weights.getRelativeStandardDeviation(), 0.000001);
+    }
+}
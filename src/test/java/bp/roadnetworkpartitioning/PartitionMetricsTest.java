@@ -0,0 +1,39 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionMetricsTest {
+
+    @Test
+    void chunksGiveSameResultAsOneChunk() {
+        Graph graph = Graph.generateGraph(250, 150, 5);
+        CompactGraph compactGraph = new CompactGraph(graph);
+        int n = compactGraph.getVertexCount();
+        assertTrue(n > 2 * PartitionMetrics.CHUNK_SIZE);
+        int partsCount = 7;
+        int[] partOf = new int[n];
+        for (int v = 0; v < n; v++) {
+            partOf[v] = ((int) (compactGraph.getX(v) / 150) + 3 * (int) (compactGraph.getY(v) / 100)) % partsCount;
+        }
+        PartitionMetrics expected = new PartitionMetrics(compactGraph, partOf, partsCount, n);
+        PartitionMetrics metrics = new PartitionMetrics(compactGraph, partOf, partsCount);
+        assertEquals(expected.getCutEdgesCount(), metrics.getCutEdgesCount());
+        assertEquals(expected.getCutWeight(), metrics.getCutWeight(), 1e-9);
+        double total = 0;
+        for (int part = 0; part < partsCount; part++) {
+            assertEquals(expected.getPartWeight(part), metrics.getPartWeight(part), 1e-9);
+            assertEquals(expected.getNeighboursCount(part), metrics.getNeighboursCount(part));
+            total += metrics.getPartWeight(part);
+        }
+        assertEquals(compactGraph.getTotalWeight(), total, 1e-6);
+        assertEquals(expected.getMinNeighbours(), metrics.getMinNeighbours());
+        assertEquals(expected.getMaxNeighbours(), metrics.getMaxNeighbours());
+        assertEquals(expected.getAverageNeighbours(), metrics.getAverageNeighbours(), 1e-9);
+        assertEquals(expected.getRelativeStandardDeviation(), metrics.getRelativeStandardDeviation(), 1e-9);
+        PartitionMetrics repeated = new PartitionMetrics(compactGraph, partOf, partsCount);
+        assertEquals(metrics.getCutWeight(), repeated.getCutWeight());
+        assertEquals(metrics.getRelativeStandardDeviation(), repeated.getRelativeStandardDeviation());
+    }
+}
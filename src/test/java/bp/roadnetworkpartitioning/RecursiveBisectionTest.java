@@ -0,0 +1,56 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecursiveBisectionTest {
+
+    /** Bisector putting vertices with the lowest x-coordinates to part 0 until it has target weight. */
+    private final GraphBisector coordinateBisector = (graph, fraction, seed) -> {
+        Integer[] order = IntStream.range(0, graph.getVertexCount()).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparingDouble(graph::getX));
+        int[] sides = new int[graph.getVertexCount()];
+        Arrays.fill(sides, 1);
+        double weight = 0;
+        for (int v : order) {
+            if (weight + graph.getVertexWeight(v) / 2 > fraction * graph.getTotalWeight()) {
+                break;
+            }
+            sides[v] = 0;
+            weight += graph.getVertexWeight(v);
+        }
+        return sides;
+    };
+
+    @Test
+    void partition() {
+        Graph graph = Graph.generateGraph(12, 4, 5);
+        CompactGraph compactGraph = new CompactGraph(graph);
+        int[] partOf = RecursiveBisection.partition(compactGraph, 3, coordinateBisector, 1);
+        PartitionMetrics metrics = new PartitionMetrics(compactGraph, partOf, 3);
+        for (int part = 0; part < 3; part++) {
+            assertEquals(compactGraph.getTotalWeight() / 3, metrics.getPartWeight(part), compactGraph.getTotalWeight() / 10);
+        }
+        for (int v = 0; v < partOf.length; v++) {
+            for (int u = 0; u < partOf.length; u++) {
+                if (compactGraph.getX(v) < compactGraph.getX(u)) {
+                    assertTrue(partOf[v] <= partOf[u]);
+                }
+            }
+        }
+        assertArrayEquals(partOf, RecursiveBisection.partition(compactGraph, 3, coordinateBisector, 1));
+    }
+
+    @Test
+    void partitionIntoOnePart() {
+        Graph graph = Graph.generateGraph(3, 3, 5);
+        CompactGraph compactGraph = new CompactGraph(graph);
+        int[] partOf = RecursiveBisection.partition(compactGraph, 1, coordinateBisector, 1);
+        assertTrue(Arrays.stream(partOf).allMatch(part -> part == 0));
+    }
+}
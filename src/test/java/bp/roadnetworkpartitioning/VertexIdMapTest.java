@@ -0,0 +1,53 @@
+package bp.roadnetworkpartitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VertexIdMapTest {
+
+    @Test
+    void denseIds() {
+        VertexIdMap idMap = new VertexIdMap(List.of(3, 1, 2, 5));
+        assertEquals(4, idMap.size());
+        assertEquals(0, idMap.getIndex(1));
+        assertEquals(3, idMap.getIndex(5));
+        assertEquals(-1, idMap.getIndex(4));
+        assertEquals(-1, idMap.getIndex(100));
+        assertEquals(2, idMap.getId(1));
+    }
+
+    @Test
+    void sparseIds() {
+        VertexIdMap idMap = new VertexIdMap(List.of(1000000, -7, 42));
+        assertEquals(0, idMap.getIndex(-7));
+        assertEquals(1, idMap.getIndex(42));
+        assertEquals(2, idMap.getIndex(1000000));
+        assertEquals(-1, idMap.getIndex(43));
+        assertEquals(1000000, idMap.getId(2));
+    }
+
+    @Test
+    void graphIndices() {
+        Graph graph = Graph.generateGraph(3, 2, 5);
+        VertexIdMap idMap = graph.getVertexIdMap();
+        for (int index = 0; index < idMap.size(); index++) {
+            assertEquals(index, idMap.getIndex(idMap.getId(index)));
+            assertTrue(graph.getVertices().containsKey(idMap.getId(index)));
+        }
+    }
+
+    @Test
+    void graphIndicesAfterReplacedVertex() {
+        Graph graph = Graph.generateGraph(3, 2, 5);
+        graph.getVertexIdMap();
+        Vertex removed = graph.getVertices().remove(1);
+        graph.getVertices().put(100, new Vertex(100, removed.getXCoordinate(), removed.getYCoordinate()));
+        VertexIdMap idMap = graph.getVertexIdMap();
+        assertEquals(-1, idMap.getIndex(1));
+        assertEquals(idMap.size() - 1, idMap.getIndex(100));
+        assertEquals(graph.getVertices().size(), new CompactGraph(graph).getVertexCount());
+    }
+}